@@ -0,0 +1,103 @@
+package spiderfx.bench;
+
+import spiderfx.model.GameChange;
+import spiderfx.model.Move;
+import spiderfx.model.SpiderGame;
+import spiderfx.sim.GreedyPolicy;
+import spiderfx.sim.Policy;
+
+/**
+ * 基准测试用的固定局面
+ * 从种子牌局出发，用 {@link GreedyPolicy} 走到指定阶段；同一模式、种子和阶段总是得到同一局面
+ */
+final class BenchPositions {
+    static final long SEED = 20240611L;
+
+    enum Phase {
+        EARLY, // 刚发完牌
+        MID,   // 发过两轮牌
+        LATE   // 牌堆已发完
+    }
+
+    private BenchPositions() {
+    }
+
+    static SpiderGame at(SpiderGame.GameMode mode, Phase phase) {
+        SpiderGame game = new SpiderGame(mode, SEED);
+        int targetDeals = phase == Phase.EARLY ? 0 : phase == Phase.MID ? 2 : 5;
+        Policy policy = new GreedyPolicy();
+        policy.reset(game);
+        int[] moves = new int[SpiderGame.MAX_MOVES];
+        SpiderGame previous = game.copy();
+        while (game.getDeals() < targetDeals) {
+            int count = game.generateMoves(moves);
+            int move = count == 0 ? -1 : policy.choose(game, moves, count);
+            game.copyInto(previous);
+            if (move < 0 || game.applyMove(move) == GameChange.NONE) {
+                break;
+            }
+            if (game.isGameWon()) {
+                return previous; // 不要已经赢了的局面
+            }
+        }
+        return game;
+    }
+
+    /**
+     * 找一个走一步就能凑成完整序列的局面，对应走法用 {@link #completingMove} 取得
+     */
+    static SpiderGame beforeCompletion(SpiderGame.GameMode mode) {
+        for (long seed = SEED; ; seed++) {
+            SpiderGame game = new SpiderGame(mode, seed);
+            Policy policy = new GreedyPolicy();
+            policy.reset(game);
+            int[] moves = new int[SpiderGame.MAX_MOVES];
+            SpiderGame previous = game.copy();
+            for (int step = 0; step < 2000 && !game.isGameWon(); step++) {
+                int count = game.generateMoves(moves);
+                int move = count == 0 ? -1 : policy.choose(game, moves, count);
+                game.copyInto(previous);
+                int change = move < 0 ? GameChange.NONE : game.applyMove(move);
+                if (change == GameChange.NONE) {
+                    break;
+                }
+                if (GameChange.completed(change)) {
+                    return previous;
+                }
+            }
+        }
+    }
+
+    /**
+     * 局面中能凑成完整序列的走法，没有时返回 -1
+     */
+    static int completingMove(SpiderGame game) {
+        int[] moves = new int[SpiderGame.MAX_MOVES];
+        int count = game.generateMoves(moves);
+        for (int i = 0; i < count; i++) {
+            if (Move.isDeal(moves[i])) {
+                continue;
+            }
+            int change = game.applyMove(moves[i]);
+            game.undoMove(change);
+            if (GameChange.completed(change)) {
+                return moves[i];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 局面中第一个移牌走法，没有时返回 -1
+     */
+    static int firstColumnMove(SpiderGame game) {
+        int[] moves = new int[SpiderGame.MAX_MOVES];
+        int count = game.generateMoves(moves);
+        for (int i = 0; i < count; i++) {
+            if (!Move.isDeal(moves[i])) {
+                return moves[i];
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,98 @@
+package spiderfx.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import spiderfx.model.SaveCodec;
+import spiderfx.model.SaveData;
+import spiderfx.model.SpiderGame;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 局面拷贝与存档：copy()、restoreFrom、SaveData 的 Java 序列化/反序列化，以及二进制存档编码/解码
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CopyBenchmark {
+    @Param({"SINGLE_SUIT", "TWO_SUITS", "FOUR_SUITS"})
+    public SpiderGame.GameMode mode;
+
+    @Param({"EARLY", "MID", "LATE"})
+    public BenchPositions.Phase phase;
+
+    private SpiderGame game;
+    private SpiderGame scratch;
+    private SaveData save;
+    private byte[] saveBytes;
+    private byte[] codecBytes;
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(8192);
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        game = BenchPositions.at(mode, phase);
+        scratch = game.copy();
+        save = new SaveData(game, "bench", "");
+        saveBytes = serialize();
+        codecBytes = SaveCodec.encode(save);
+    }
+
+    @Benchmark
+    public SpiderGame copy() {
+        return game.copy();
+    }
+
+    @Benchmark
+    public SpiderGame restoreFrom() {
+        scratch.restoreFrom(game);
+        return scratch;
+    }
+
+    @Benchmark
+    public int saveDataSerialize() throws IOException {
+        return serialize().length;
+    }
+
+    @Benchmark
+    public Object saveDataDeserialize() throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(saveBytes))) {
+            return in.readObject();
+        }
+    }
+
+    @Benchmark
+    public int saveCodecEncode() {
+        return SaveCodec.encode(save).length;
+    }
+
+    @Benchmark
+    public SaveData saveCodecDecode() throws IOException {
+        return SaveCodec.decode(codecBytes);
+    }
+
+    private byte[] serialize() throws IOException {
+        buffer.reset();
+        try (ObjectOutputStream out = new ObjectOutputStream(buffer)) {
+            out.writeObject(save);
+        }
+        return buffer.toByteArray();
+    }
+}
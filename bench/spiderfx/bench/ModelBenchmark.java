@@ -0,0 +1,117 @@
+package spiderfx.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import spiderfx.model.GameChange;
+import spiderfx.model.Move;
+import spiderfx.model.SpiderGame;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 规则相关热点：发牌、拖动判定、放置判定、移牌、发一行、凑成完整序列
+ * 会修改局面的操作都与对应的撤销成对测量，保证每次调用面对同一局面
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ModelBenchmark {
+    @Param({"SINGLE_SUIT", "TWO_SUITS", "FOUR_SUITS"})
+    public SpiderGame.GameMode mode;
+
+    @Param({"EARLY", "MID", "LATE"})
+    public BenchPositions.Phase phase;
+
+    private SpiderGame game;
+    private SpiderGame completion;
+    private int move;
+    private int completingMove;
+    private long seed;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        game = BenchPositions.at(mode, phase);
+        move = BenchPositions.firstColumnMove(game);
+        completion = BenchPositions.beforeCompletion(mode);
+        completingMove = BenchPositions.completingMove(completion);
+    }
+
+    @Benchmark
+    public SpiderGame newGame() {
+        game.newGame(BenchPositions.SEED + (seed++ & 0xFF)); // 会覆盖局面，下一轮 Trial 重新生成
+        return game;
+    }
+
+    @Benchmark
+    public int canStartDrag() {
+        int count = 0;
+        for (int col = 0; col < SpiderGame.COLUMN_COUNT; col++) {
+            int size = game.getColumn(col).size();
+            for (int i = 0; i < size; i++) {
+                if (game.canStartDrag(col, i)) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int canDrop() {
+        int count = 0;
+        for (int from = 0; from < SpiderGame.COLUMN_COUNT; from++) {
+            int size = game.getColumn(from).size();
+            for (int start = game.getFaceDownCount(from); start < size; start++) {
+                for (int to = 0; to < SpiderGame.COLUMN_COUNT; to++) {
+                    if (game.canDrop(from, start, to)) {
+                        count++;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public boolean moveSequence() {
+        if (move < 0 || !game.moveSequence(Move.from(move), Move.startIndex(move), Move.to(move))) {
+            return false;
+        }
+        game.undoChange(game.getLastChange());
+        return true;
+    }
+
+    @Benchmark
+    public boolean dealRow() {
+        if (!game.dealRow()) {
+            return false; // LATE 阶段牌堆已空，只测到判定
+        }
+        game.undoChange(game.getLastChange());
+        return true;
+    }
+
+    /**
+     * checkCompleteSequence 是私有方法，通过一次凑成完整序列的移牌来测量（含移走与撤销）
+     */
+    @Benchmark
+    public int checkCompleteSequence() {
+        int change = completion.applyMove(completingMove);
+        if (change != GameChange.NONE) {
+            completion.undoMove(change);
+        }
+        return change;
+    }
+}
@@ -0,0 +1,45 @@
+$ErrorActionPreference = "Stop"
+
+$root = Split-Path -Parent $MyInvocation.MyCommand.Path
+Set-Location $root
+
+# JMH 所需的 jar：jmh-core、jmh-generator-annprocess、jopt-simple、commons-math3
+$jmhLib = $env:JMH_LIB
+if ([string]::IsNullOrWhiteSpace($jmhLib)) {
+    $jmhLib = "C:\Program Files\jmh\lib"
+}
+
+if (-not (Test-Path $jmhLib)) {
+    Write-Error "JMH lib directory not found: $jmhLib"
+    exit 1
+}
+
+$jmhClasspath = (Get-ChildItem -Path $jmhLib -Filter *.jar | ForEach-Object { $_.FullName }) -join ";"
+
+if (Test-Path "out-bench") {
+    Remove-Item -Recurse -Force "out-bench"
+}
+New-Item -ItemType Directory -Path "out-bench" | Out-Null
+
+Write-Host "Using JMH lib: $jmhLib"
+Write-Host "Compiling model and benchmark sources..."
+
+# 基准只依赖模型层，不需要 JavaFX
+javac -encoding UTF-8 `
+  -cp "$jmhClasspath" `
+  -processorpath "$jmhClasspath" `
+  -d out-bench `
+  src\spiderfx\model\*.java `
+  src\spiderfx\solver\*.java `
+  src\spiderfx\sim\*.java `
+  bench\spiderfx\bench\*.java
+
+if ($LASTEXITCODE -ne 0) {
+    Write-Error "Compilation failed, exit code: $LASTEXITCODE"
+    exit $LASTEXITCODE
+}
+
+Write-Host "Compilation succeeded. Running benchmarks..."
+
+# 额外参数原样传给 JMH，例如：.\run-bench.ps1 ModelBenchmark.canDrop -p mode=FOUR_SUITS
+java -cp "out-bench;$jmhClasspath" org.openjdk.jmh.Main -prof gc @args
@@ -25,6 +25,8 @@ javac -encoding UTF-8 `
   --add-modules javafx.controls `
   -d out `
   src\spiderfx\model\*.java `
+  src\spiderfx\solver\*.java `
+  src\spiderfx\sim\*.java `
   src\spiderfx\view\*.java `
   src\spiderfx\controller\*.java `
   src\spiderfx\Main.java
@@ -4,7 +4,12 @@ import javafx.application.Application;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
 import spiderfx.controller.GameController;
+import spiderfx.model.AutosaveJournal;
 import spiderfx.model.SpiderGame;
+import spiderfx.model.GameArchive;
+import spiderfx.model.GameHistory;
+import spiderfx.model.StatsManager;
+import spiderfx.view.CardImages;
 import spiderfx.view.GameView;
 // 导入用于文件操作的 NIO 包中的工具类
 import java.nio.file.Files;
@@ -12,12 +17,17 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 
 public class Main extends Application {
+    private GameController controller;
+
     @Override
     // 重写 Application 类的 start 方法，这是 JavaFX 应用程序的入口点
     public void start(Stage primaryStage) {
-        SpiderGame game = new SpiderGame(); //游戏模型实例
+        CardImages.preloadAsync(); // 后台解码牌面图片，与界面构建并行
+        // 有未完成的自动存档时重放它，恢复上次的牌局与撤销历史
+        AutosaveJournal.Resume resumed = AutosaveJournal.replay(Paths.get(AutosaveJournal.AUTOSAVE_FILE));
+        SpiderGame game = resumed != null ? resumed.getGame() : new SpiderGame(); //游戏模型实例
         GameView view = new GameView(game); // 游戏视图实例，并传入游戏模型
-        GameController controller = new GameController(game, view); // 游戏控制器实例，连接模型和视图
+        controller = new GameController(game, view, resumed); // 游戏控制器实例，连接模型和视图
         view.bindController(controller); // 将控制器绑定到视图，建立双向连接
 
         double baseWidth = 1200;
@@ -42,6 +52,16 @@ public class Main extends Application {
         primaryStage.show(); // 显示主窗口
     }
 
+    @Override
+    public void stop() {
+        if (controller != null) {
+            controller.shutdown(); // 等待后台存档写完
+        }
+        StatsManager.shutdown(); // 写出尚未落盘的统计数据
+        GameHistory.shutdown();
+        GameArchive.shutdown(); // 写出缓存中的归档牌局
+    }
+
     public static void main(String[] args) {
         launch(args);
     }
@@ -2,11 +2,13 @@ package spiderfx.controller;
 
 import javafx.animation.KeyFrame;
 import javafx.animation.Timeline;
+import javafx.application.Platform;
 import javafx.geometry.Point2D;
 import javafx.geometry.Pos;
 import javafx.geometry.Insets;
 import javafx.scene.Group;
 import javafx.scene.Scene;
+import javafx.scene.input.KeyEvent;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.Pane;
 import javafx.scene.layout.StackPane;
@@ -15,15 +17,31 @@ import javafx.scene.layout.HBox;
 import javafx.scene.control.*;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.Priority;
+import spiderfx.model.AutosaveJournal;
 import spiderfx.model.Card;
+import spiderfx.model.ChangeMask;
+import spiderfx.model.GameArchive;
+import spiderfx.model.GameHistory;
+import spiderfx.model.HistoryStats;
+import spiderfx.model.Move;
+import spiderfx.model.Replay;
+import spiderfx.model.ReplayPlayer;
+import spiderfx.model.SaveCatalog;
+import spiderfx.model.SaveCodec;
 import spiderfx.model.SaveData;
+import spiderfx.model.SaveStore;
 import spiderfx.model.SpiderGame;
 import spiderfx.model.StatsManager;
 import spiderfx.model.Statistics;
 import spiderfx.model.Achievement;
+import spiderfx.model.UndoLog;
+import spiderfx.solver.SolverResult;
+import spiderfx.solver.SpiderSolver;
+import spiderfx.solver.TranspositionTable;
 import spiderfx.view.CardView;
 import spiderfx.view.ColumnView;
 import spiderfx.view.GameView;
+import spiderfx.view.TableauColumn;
 
 import javafx.stage.FileChooser;
 import java.io.*;
@@ -31,18 +49,34 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.ArrayDeque;
-import java.util.Deque;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class GameController {
     private static final String SAVE_DIR = "saves";
-    private static final int MAX_UNDO_STEPS = 50;
+    private static final long HINT_MAX_NODES = 200_000;
+    private static final long HINT_TIME_LIMIT_MILLIS = 300;
+    private static final int HINT_TABLE_BITS = 18;
+    private static final int RECENT_GAMES = 100; // 统计对话框中近期表现的局数
+    private static final double REPLAY_STEP_SECONDS = 0.4; // 自动播放每步间隔
+    private static final int REPLAY_PAGE = 10; // PageUp/PageDown 跳过的步数
     private SpiderGame game;
     private final GameView view;
-    private final Deque<SpiderGame> undoStack = new ArrayDeque<>();
+    private final UndoLog undoLog;
+    private final AutosaveJournal autosave; // 打开失败时为 null
+    private final int[] moveBuffer = new int[SpiderGame.MAX_MOVES];
+    private final SpiderSolver hintSolver = new SpiderSolver(HINT_MAX_NODES, HINT_TIME_LIMIT_MILLIS,
+            SpiderSolver.DEFAULT_MAX_DEPTH, new TranspositionTable(HINT_TABLE_BITS));
+    // 提示在后台线程上求解，单线程保证 hintSolver 与它的置换表不会被并发使用
+    private final ExecutorService hintExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "hint-solver");
+        t.setDaemon(true);
+        return t;
+    });
+    private int hintRequest; // 最近一次提示请求的序号，旧请求的结果直接丢弃
 
     private int dragFromColumn = -1;
     private int dragFromIndex = -1;
@@ -51,16 +85,75 @@ public class GameController {
     private double pressSceneX;
     private double pressSceneY;
     private int lastFoundationCount;
+    private boolean historyRecorded; // 当前这局是否已写入历史记录
+    private int hiddenColumns;   // 设置了隐藏下标的列（位掩码）
+    private int pendingRender;   // 模型以外原因需要重画的列，如隐藏状态变化
     private Timeline timer;
+    private final SaveStore saveStore = new SaveStore(Paths.get(SAVE_DIR));
     private long startMillis;
+    private ReplayPlayer replay;        // 回放模式下的播放器，不在回放时为 null
+    private SpiderGame suspendedGame;   // 进入回放前的牌局，退出回放时恢复
+    private Timeline replayTimer;       // 回放自动播放
 
     public GameController(SpiderGame game, GameView view) {
+        this(game, view, null);
+    }
+
+    /**
+     * resumed 不为 null 时 game 就是从自动存档重放出的牌局：撤销历史随之恢复，自动存档在原日志末尾继续追加
+     */
+    public GameController(SpiderGame game, GameView view, AutosaveJournal.Resume resumed) {
         this.game = game;
         this.view = view;
-        refreshColumns();
+        this.undoLog = resumed != null ? resumed.getUndoLog() : new UndoLog();
+        this.autosave = openAutosave(game, resumed);
+        refreshDirty();
         lastFoundationCount = game.getFoundations().size();
-        view.updateScore(game);
         initTimer();
+        if (resumed != null) {
+            view.setMessage("已恢复上次未完成的牌局");
+        }
+    }
+
+    private static AutosaveJournal openAutosave(SpiderGame game, AutosaveJournal.Resume resumed) {
+        Path path = Paths.get(AutosaveJournal.AUTOSAVE_FILE);
+        try {
+            return resumed != null ? AutosaveJournal.resume(path, resumed) : AutosaveJournal.create(path, game);
+        } catch (IOException e) {
+            System.err.println("Autosave unavailable: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 等待尚未完成的存档写完（退出时调用）
+     */
+    public void shutdown() {
+        hintExecutor.shutdownNow();
+        saveStore.shutdown();
+        if (autosave != null) {
+            autosave.recordElapsed((suspendedGame != null ? suspendedGame : game).getElapsedSeconds());
+            try {
+                autosave.close();
+            } catch (IOException e) {
+                System.err.println("Failed to close autosave: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 新的一局（新游戏、切换模式、读档）从当前局面重新开始自动存档
+     */
+    private void restartAutosave() {
+        if (autosave != null) {
+            autosave.restart(game);
+        }
+    }
+
+    private void autosaveMove() {
+        if (autosave != null) {
+            autosave.recordMove(game.getLastChange(), game.getElapsedSeconds());
+        }
     }
 
     private void initTimer() {
@@ -78,16 +171,11 @@ public class GameController {
         timer.play();
     }
 
-    private void pushUndo() {
-        undoStack.push(game.copy());
-        if (undoStack.size() > MAX_UNDO_STEPS) {
-            undoStack.removeLast();
-        }
-    }
-
     public void installSceneHandlers(Scene scene) {
         scene.setOnMouseDragged(this::onMouseDragged);
         scene.setOnMouseReleased(this::onMouseReleased);
+        // 用过滤器而不是处理器：回放时方向键、空格不应先被获得焦点的按钮消费
+        scene.addEventFilter(KeyEvent.KEY_PRESSED, this::onReplayKey);
     }
 
     public void onNewGame() {
@@ -106,6 +194,7 @@ public class GameController {
 
         Optional<ButtonType> result = alert.showAndWait();
         if (result.isPresent() && result.get() != cancel) {
+            exitReplay();
             SpiderGame.GameMode mode = SpiderGame.GameMode.SINGLE_SUIT;
             if (result.get() == twoSuits) {
                 mode = SpiderGame.GameMode.TWO_SUITS;
@@ -113,53 +202,49 @@ public class GameController {
                 mode = SpiderGame.GameMode.FOUR_SUITS;
             }
             
-            undoStack.clear();
+            recordHistory(false);
+            undoLog.clear();
             game = new SpiderGame(mode);
+            historyRecorded = false;
             dragFromColumn = -1;
             dragFromIndex = -1;
             dragging = false;
             clearDragGroup();
-            ColumnView[] columns = view.getColumns();
-            for (ColumnView columnView : columns) {
-                columnView.setHiddenFromIndex(0);
-            }
-            refreshColumns();
+            hideAll();
+            refreshDirty();
             view.updateGameMode(mode);
             view.playNewGameAnimation();
-            view.updateStatus(game);
-            view.updateScore(game);
             game.setElapsedSeconds(0);
             initTimer();
             lastFoundationCount = game.getFoundations().size();
+            restartAutosave();
             
             // 记录统计数据
-            StatsManager.getInstance().incrementGamesPlayed();
-            StatsManager.saveStats();
-            StatsManager.checkAchievements(game);
+            StatsManager.recordGameStarted(game);
         }
     }
 
     public void onDeal() {
-        pushUndo();
+        if (replay != null) {
+            showReplayPosition();
+            return;
+        }
         if (game.dealRow()) {
-            ColumnView[] columns = view.getColumns();
-            for (int i = 0; i < columns.length; i++) {
-                int lastIndex = game.getColumn(i).size() - 1;
-                columns[i].setHiddenFromIndex(lastIndex);
+            undoLog.record(game.getLastChange());
+            autosaveMove();
+            for (int i = 0; i < SpiderGame.COLUMN_COUNT; i++) {
+                hideFrom(i, game.getColumn(i).size() - 1);
             }
-            refreshColumns();
+            refreshDirty();
             handleFoundationsChanged();
             view.playDealAnimation();
-            view.updateStatus(game);
-            view.updateStockCount(game);
-            view.updateScore(game);
         } else {
             view.setMessage("不能发牌：牌堆不足");
         }
     }
 
     public void onCardPressed(int columnIndex, int cardIndex, MouseEvent event) {
-        if (!game.canStartDrag(columnIndex, cardIndex)) {
+        if (replay != null || !game.canStartDrag(columnIndex, cardIndex)) {
             return;
         }
         dragFromColumn = columnIndex;
@@ -192,11 +277,10 @@ public class GameController {
             if (Math.hypot(dx, dy) < 3) {
                 return;
             }
-            ColumnView[] columns = view.getColumns();
-            columns[dragFromColumn].setHiddenFromIndex(dragFromIndex);
-            refreshColumns();
+            hideFrom(dragFromColumn, dragFromIndex);
+            refreshDirty();
             List<Card> sequence = game.getMovableSequence(dragFromColumn, dragFromIndex);
-            ColumnView srcCol = view.getColumns()[dragFromColumn];
+            TableauColumn srcCol = view.getColumns()[dragFromColumn];
             double gap = srcCol.getCurrentGap();
             dragGroup = buildDragGroup(sequence, gap);
             dragGroup.setScaleX(1.05);
@@ -221,15 +305,11 @@ public class GameController {
         if (dragGroup != null) {
             targetColumn = findTargetColumn(event.getSceneX(), event.getSceneY());
             if (targetColumn >= 0) {
-                // 在尝试移动前先保存状态，如果移动失败再处理（或者先判定能否移动）
-                if (game.canDrop(dragFromColumn, dragFromIndex, targetColumn)) {
-                    pushUndo();
-                    if (game.moveSequence(dragFromColumn, dragFromIndex, targetColumn)) {
-                        moved = true;
-                    } else {
-                        // 如果因为某种原因 moveSequence 失败了（理论上 canDrop 过了就不会失败），移除刚放进去的状态
-                        undoStack.pop();
-                    }
+                // 移动成功后只记录这一步的变化，用于撤销/重做
+                if (game.moveSequence(dragFromColumn, dragFromIndex, targetColumn)) {
+                    undoLog.record(game.getLastChange());
+                    autosaveMove();
+                    moved = true;
                 }
             }
         }
@@ -238,22 +318,19 @@ public class GameController {
         dragFromIndex = -1;
         clearDragGroup();
         clearHidden();
-        refreshColumns();
+        refreshDirty();
         if (moved) {
             handleFoundationsChanged();
-            view.updateStatus(game);
-            view.updateScore(game);
             
             // 记录步数
-            StatsManager.getInstance().addMoves(1);
-            StatsManager.saveStats();
+            StatsManager.recordMoves(game, 1);
         }
         event.consume();
     }
 
     private int findTargetColumn(double sceneX, double sceneY) {
-        ColumnView[] columns = view.getColumns();
-        for (ColumnView columnView : columns) {
+        TableauColumn[] columns = view.getColumns();
+        for (TableauColumn columnView : columns) {
             if (columnView.containsScenePoint(sceneX, sceneY)) {
                 return columnView.getColumnIndex();
             }
@@ -267,26 +344,58 @@ public class GameController {
         dragGroup = null;
     }
 
+    private void hideFrom(int column, int index) {
+        view.getColumns()[column].setHiddenFromIndex(index);
+        hiddenColumns |= ChangeMask.column(column);
+        pendingRender |= ChangeMask.column(column);
+    }
+
+    private void hideAll() {
+        for (int i = 0; i < SpiderGame.COLUMN_COUNT; i++) {
+            hideFrom(i, 0);
+        }
+    }
+
     private void clearHidden() {
-        ColumnView[] columns = view.getColumns();
-        for (ColumnView columnView : columns) {
-            columnView.setHiddenFromIndex(Integer.MAX_VALUE);
+        TableauColumn[] columns = view.getColumns();
+        for (int i = 0; i < columns.length; i++) {
+            if (ChangeMask.isColumnDirty(hiddenColumns, i)) {
+                columns[i].setHiddenFromIndex(Integer.MAX_VALUE);
+            }
         }
+        pendingRender |= hiddenColumns;
+        hiddenColumns = 0;
     }
 
-    private void refreshColumns() {
-        ColumnView[] columns = view.getColumns();
+    /**
+     * 只刷新模型报告有变化的部分（{@link SpiderGame#takeDirty()}），
+     * 以及隐藏状态改变过的列
+     */
+    private void refreshDirty() {
+        int dirty = game.takeDirty() | pendingRender;
+        pendingRender = ChangeMask.NONE;
+        TableauColumn[] columns = view.getColumns();
         for (int i = 0; i < columns.length; i++) {
-            columns[i].render(game.getColumn(i), this);
+            if (ChangeMask.isColumnDirty(dirty, i)) {
+                columns[i].render(game.getColumn(i), this);
+            }
+        }
+        if ((dirty & ChangeMask.FOUNDATIONS) != 0) {
+            view.updateFoundations(game);
+        }
+        if ((dirty & (ChangeMask.SCORE | ChangeMask.FOUNDATIONS)) != 0) {
+            view.updateStatus(game); // 同时刷新牌堆剩余次数
+            view.updateScore(game);
+        } else if ((dirty & ChangeMask.STOCK) != 0) {
+            view.updateStockCount(game);
         }
-        view.updateFoundations(game);
     }
 
     private void handleFoundationsChanged() {
         int current = game.getFoundations().size();
         if (current > lastFoundationCount) {
             int newSequences = current - lastFoundationCount;
-            StatsManager.getInstance().addSequences(newSequences);
+            StatsManager.recordSequences(game, newSequences);
             
             for (int i = lastFoundationCount; i < current; i++) {
                 view.playFoundationAnimation(i);
@@ -294,41 +403,68 @@ public class GameController {
             if (game.isGameWon() && timer != null) {
                 timer.stop();
                 
-                // 记录胜利数据
-                Statistics stats = StatsManager.getInstance();
-                stats.incrementWins();
-                stats.incrementWinsByMode(game.getGameMode());
-                stats.updateBestScore(game.getGameMode(), game.getScore());
-                stats.updateFastestTime(game.getGameMode(), game.getElapsedSeconds());
-                StatsManager.saveStats();
-                
-                // 检查成就并提示
-                List<String> unlocked = StatsManager.checkAchievements(game);
+                // 记录胜利数据，并提示因此解锁的成就
+                List<String> unlocked = StatsManager.recordWin(game);
+                recordHistory(true);
                 if (!unlocked.isEmpty()) {
                     view.setMessage("达成成就: " + String.join(", ", unlocked));
                 }
-            } else {
-                // 即使没赢也检查一下成就（有些成就跟累计数据有关）
-                StatsManager.checkAchievements(game);
             }
         }
         lastFoundationCount = current;
     }
 
     public void onHint() {
-        for (int from = 0; from < SpiderGame.COLUMN_COUNT; from++) {
-            List<Card> col = game.getColumn(from);
-            for (int i = 0; i < col.size(); i++) {
-                if (!game.canStartDrag(from, i)) continue;
-                for (int to = 0; to < SpiderGame.COLUMN_COUNT; to++) {
-                    if (to == from) continue;
-                    if (game.canDrop(from, i, to)) {
-                        view.setMessage("可移动：从第" + (from + 1) + "列到第" + (to + 1) + "列");
-                        view.showHintMove(from, i, to);
+        if (replay != null) {
+            showReplayPosition();
+            return;
+        }
+        // 先让求解器在小预算内向前搜索，给出能通向胜利（或至少局面最好）的第一步
+        // 求解的是局面拷贝，界面在此期间可以继续操作；完成时局面已经变化则丢弃结果
+        SpiderGame requested = game;
+        long position = game.positionHash();
+        int request = ++hintRequest;
+        SpiderGame snapshot = game.copy();
+        view.setMessage("正在寻找提示…");
+        CompletableFuture.supplyAsync(() -> hintSolver.solve(snapshot), hintExecutor)
+                .whenCompleteAsync((solution, error) -> {
+                    if (request != hintRequest || replay != null
+                            || game != requested || game.positionHash() != position) {
                         return;
                     }
-                }
+                    if (error != null) {
+                        SaveStore.cause(error).printStackTrace();
+                        view.setMessage("");
+                        return;
+                    }
+                    showHint(solution);
+                }, Platform::runLater);
+    }
+
+    private void showHint(SolverResult solution) {
+        int first = solution.getFirstMove();
+        if (first != -1) {
+            if (Move.isDeal(first)) {
+                view.setMessage(solution.isSolved() ? "建议点击发牌（可通向胜利）" : "建议点击发牌");
+                view.pulseStockHint();
+            } else {
+                int from = Move.from(first);
+                int to = Move.to(first);
+                String suffix = solution.isSolved() ? "（可通向胜利）" : "";
+                view.setMessage("可移动：从第" + (from + 1) + "列到第" + (to + 1) + "列" + suffix);
+                view.showHintMove(from, Move.startIndex(first), to);
             }
+            return;
+        }
+        int count = game.generateMoves(moveBuffer);
+        for (int i = 0; i < count; i++) {
+            int move = moveBuffer[i];
+            if (Move.isDeal(move)) continue;
+            int from = Move.from(move);
+            int to = Move.to(move);
+            view.setMessage("可移动：从第" + (from + 1) + "列到第" + (to + 1) + "列");
+            view.showHintMove(from, Move.startIndex(move), to);
+            return;
         }
         if (game.canDealRow()) {
             view.setMessage("无可移动，建议点击发牌");
@@ -352,6 +488,10 @@ public class GameController {
     }
 
     public void onSaveGame() {
+        if (replay != null) {
+            view.setMessage("回放中不能保存，按 Esc 退出回放");
+            return;
+        }
         // 弹出对话框输入标签和备注
         Dialog<SaveData> dialog = new Dialog<>();
         dialog.setTitle("保存游戏");
@@ -379,7 +519,8 @@ public class GameController {
 
         dialog.setResultConverter(dialogButton -> {
             if (dialogButton == saveButtonType) {
-                return new SaveData(game, labelField.getText(), remarkField.getText());
+                // 存档取当前局面的拷贝，后台写盘期间界面可以继续操作
+                return new SaveData(game.copy(), labelField.getText(), remarkField.getText());
             }
             return null;
         });
@@ -387,99 +528,97 @@ public class GameController {
         Optional<SaveData> result = dialog.showAndWait();
 
         result.ifPresent(saveData -> {
-            try {
-                Path path = Paths.get(SAVE_DIR);
-                if (!Files.exists(path)) {
-                    Files.createDirectories(path);
-                }
-                String fileName = "save_" + System.currentTimeMillis() + ".dat";
-                try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(new File(SAVE_DIR, fileName)))) {
-                    oos.writeObject(saveData);
+            view.setMessage("正在保存: " + saveData.getLabel());
+            saveStore.save(saveData).whenCompleteAsync((fileName, error) -> {
+                if (error != null) {
+                    Throwable cause = SaveStore.cause(error);
+                    view.setMessage("保存失败: " + cause.getMessage());
+                    cause.printStackTrace();
+                } else {
                     view.setMessage("游戏已保存: " + saveData.getLabel());
                 }
-            } catch (IOException e) {
-                view.setMessage("保存失败: " + e.getMessage());
-                e.printStackTrace();
-            }
+            }, Platform::runLater);
         });
     }
 
     public void onLoadGame() {
-        Path path = Paths.get(SAVE_DIR);
-        if (!Files.exists(path)) {
-            view.setMessage("没有找到存档目录");
-            return;
-        }
-
-        try {
-            List<File> saveFiles = Files.list(path)
-                    .filter(p -> p.toString().endsWith(".dat"))
-                    .map(Path::toFile)
-                    .collect(Collectors.toList());
-
-            if (saveFiles.isEmpty()) {
-                view.setMessage("没有找到任何存档文件");
+        view.setMessage("正在读取存档列表…");
+        // 只读存档索引，选中后才解码对应的存档；文件操作都在后台线程上进行
+        saveStore.list().whenCompleteAsync((saves, error) -> {
+            if (error != null) {
+                Throwable cause = SaveStore.cause(error);
+                view.setMessage("读取存档列表失败: " + cause.getMessage());
+                cause.printStackTrace();
                 return;
             }
-
-            List<SaveData> saves = new ArrayList<>();
-            List<File> validFiles = new ArrayList<>();
-            for (File file : saveFiles) {
-                try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(file))) {
-                    Object obj = ois.readObject();
-                    if (obj instanceof SaveData) {
-                        saves.add((SaveData) obj);
-                        validFiles.add(file);
-                    }
-                } catch (Exception e) {
-                    // 忽略无效存档
-                }
-            }
-
             if (saves.isEmpty()) {
                 view.setMessage("没有有效的存档文件");
                 return;
             }
+            view.setMessage("");
 
             // 弹出对话框选择存档
-            ChoiceDialog<SaveData> dialog = new ChoiceDialog<>(saves.get(0), saves);
+            ChoiceDialog<SaveCatalog.Entry> dialog = new ChoiceDialog<>(saves.get(0), saves);
             dialog.setTitle("加载游戏");
             dialog.setHeaderText("请选择要加载的存档");
             dialog.setContentText("选择存档:");
 
-            Optional<SaveData> result = dialog.showAndWait();
-            result.ifPresent(saveData -> {
-                this.game = saveData.getGame();
-                
-                // 刷新UI
-                dragFromColumn = -1;
-                dragFromIndex = -1;
-                dragging = false;
-                clearDragGroup();
-                clearHidden();
-                refreshColumns();
-                
-                view.updateGameMode(game.getGameMode());
-                view.updateStatus(game);
-                view.updateScore(game);
-                view.updateFoundations(game);
-                view.updateStockCount(game);
-                
-                // 恢复计时器
-                initTimer();
-                lastFoundationCount = game.getFoundations().size();
-                
-                view.setMessage("已加载存档: " + saveData.getLabel());
-            });
+            Optional<SaveCatalog.Entry> choice = dialog.showAndWait();
+            choice.ifPresent(this::loadSave);
+        }, Platform::runLater);
+    }
 
-        } catch (IOException e) {
-            view.setMessage("读取存档列表失败: " + e.getMessage());
-            e.printStackTrace();
+    private void loadSave(SaveCatalog.Entry entry) {
+        if (entry.isCorrupt()) {
+            view.setMessage("存档已损坏: " + entry.getCorruption());
+            return;
         }
+        view.setMessage("正在加载存档: " + entry.getLabel());
+        saveStore.load(entry).whenCompleteAsync((saveData, error) -> {
+            if (error == null) {
+                applyLoadedSave(saveData);
+                return;
+            }
+            Throwable cause = SaveStore.cause(error);
+            if (cause instanceof SaveCodec.CorruptSaveException) {
+                view.setMessage("存档已损坏: " + cause.getMessage());
+            } else {
+                view.setMessage("读取存档失败: " + cause.getMessage());
+            }
+        }, Platform::runLater);
+    }
+
+    private void applyLoadedSave(SaveData saveData) {
+        exitReplay();
+        recordHistory(false);
+        this.game = saveData.getGame();
+        historyRecorded = false;
+        undoLog.clear();
+        
+        // 刷新UI
+        dragFromColumn = -1;
+        dragFromIndex = -1;
+        dragging = false;
+        clearDragGroup();
+        clearHidden();
+        refreshDirty();
+        
+        view.updateGameMode(game.getGameMode());
+        
+        // 恢复计时器
+        initTimer();
+        lastFoundationCount = game.getFoundations().size();
+        restartAutosave();
+        
+        view.setMessage("已加载存档: " + saveData.getLabel());
     }
 
     public void onUndo() {
-        if (undoStack.isEmpty()) {
+        if (replay != null) {
+            replayStep(-1); // 回放中撤销/重做按钮用作后退/前进一步
+            return;
+        }
+        if (!undoLog.canUndo()) {
             view.setMessage("没有可撤销的操作");
             return;
         }
@@ -545,8 +684,10 @@ public class GameController {
 
         Optional<ButtonType> result = alert.showAndWait();
         if (result.isPresent() && result.get() == okType) {
-            SpiderGame previousState = undoStack.pop();
-            this.game.restoreFrom(previousState);
+            game.undoChange(undoLog.undo());
+            if (autosave != null) {
+                autosave.recordUndo(game.getElapsedSeconds());
+            }
             
             // 刷新UI
             dragFromColumn = -1;
@@ -554,17 +695,272 @@ public class GameController {
             dragging = false;
             clearDragGroup();
             clearHidden();
-            refreshColumns();
+            refreshDirty();
+            lastFoundationCount = game.getFoundations().size();
             
             view.updateGameMode(game.getGameMode());
-            view.updateStatus(game);
-            view.updateScore(game);
-            view.updateFoundations(game);
-            view.updateStockCount(game);
             view.setMessage("已撤销上一步操作");
         }
     }
 
+    public void onRedo() {
+        if (replay != null) {
+            replayStep(1);
+            return;
+        }
+        if (!undoLog.canRedo()) {
+            view.setMessage("没有可重做的操作");
+            return;
+        }
+        if (!game.redoChange(undoLog.redo())) {
+            // 正常情况下不会发生：重做的是同一局面下曾经成功的操作
+            undoLog.undo();
+            view.setMessage("无法重做该操作");
+            return;
+        }
+        if (autosave != null) {
+            autosave.recordRedo(game.getElapsedSeconds());
+        }
+        dragFromColumn = -1;
+        dragFromIndex = -1;
+        dragging = false;
+        clearDragGroup();
+        clearHidden();
+        refreshDirty();
+        handleFoundationsChanged();
+        view.setMessage("已重做一步操作");
+    }
+
+    /**
+     * 把当前这局的结果写入逐局历史，连同走法写入归档；未走过一步就放弃的局不记录
+     * 胜利时由 handleFoundationsChanged 调用，新游戏、切换模式、读档时以放弃记录
+     */
+    private void recordHistory(boolean won) {
+        if (historyRecorded || (!won && game.getMoves() == 0)) {
+            return;
+        }
+        historyRecorded = true;
+        long timestamp = System.currentTimeMillis();
+        GameHistory history = GameHistory.getInstance();
+        if (history != null) {
+            try {
+                history.append(game, won, timestamp);
+            } catch (IOException e) {
+                System.err.println("Failed to record game history: " + e.getMessage());
+            }
+        }
+        GameArchive archive = GameArchive.getInstance();
+        if (archive != null) {
+            try {
+                archive.append(game, won, timestamp, Replay.record(game, undoLog.history()));
+            } catch (IOException e) {
+                System.err.println("Failed to archive game: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 回放：导出当前牌局（从开局或读档以来的全部步骤），或打开回放文件进入回放模式
+     * 回放模式下原牌局暂停保存在 suspendedGame 中，界面显示播放器的局面
+     */
+    public void onReplay() {
+        if (replay != null) {
+            exitReplay();
+            return;
+        }
+        Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
+        alert.setTitle("回放");
+        alert.setHeaderText("导出当前牌局的回放，或打开已有的回放文件");
+        alert.setContentText("回放中：←/→ 单步，PageUp/PageDown 跳 " + REPLAY_PAGE + " 步，Home/End 到首尾，"
+                + "空格 自动播放，G 跳到指定步，Esc 退出");
+
+        ButtonType export = new ButtonType("导出当前牌局");
+        ButtonType open = new ButtonType("打开回放");
+        ButtonType cancel = new ButtonType("取消", ButtonBar.ButtonData.CANCEL_CLOSE);
+        alert.getButtonTypes().setAll(export, open, cancel);
+
+        Optional<ButtonType> result = alert.showAndWait();
+        if (result.isPresent() && result.get() == export) {
+            exportReplay();
+        } else if (result.isPresent() && result.get() == open) {
+            openReplay();
+        }
+    }
+
+    private void exportReplay() {
+        // 在 FX 线程上由撤销日志还原出起始局面（与步数成正比，很快），写盘交给后台线程
+        Replay recorded = Replay.record(game, undoLog.history());
+        view.setMessage("正在导出回放…");
+        saveStore.saveReplay(recorded).whenCompleteAsync((fileName, error) -> {
+            if (error != null) {
+                Throwable cause = SaveStore.cause(error);
+                view.setMessage("导出回放失败: " + cause.getMessage());
+                cause.printStackTrace();
+            } else {
+                view.setMessage("回放已导出: " + fileName + "（" + recorded.length() + " 步）");
+            }
+        }, Platform::runLater);
+    }
+
+    private void openReplay() {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("打开回放");
+        fileChooser.getExtensionFilters().add(
+            new FileChooser.ExtensionFilter("回放文件", "*" + Replay.REPLAY_SUFFIX)
+        );
+        File saveDir = new File(SAVE_DIR);
+        if (saveDir.isDirectory()) {
+            fileChooser.setInitialDirectory(saveDir);
+        }
+        File selectedFile = fileChooser.showOpenDialog(view.getScene().getWindow());
+        if (selectedFile == null) {
+            return;
+        }
+        view.setMessage("正在读取回放…");
+        // 解码与建立检查点都在后台线程上完成
+        saveStore.loadReplay(selectedFile.toPath()).whenCompleteAsync((player, error) -> {
+            if (error == null) {
+                enterReplay(player);
+                return;
+            }
+            Throwable cause = SaveStore.cause(error);
+            if (cause instanceof SaveCodec.CorruptSaveException) {
+                view.setMessage("回放文件已损坏: " + cause.getMessage());
+            } else {
+                view.setMessage("读取回放失败: " + cause.getMessage());
+            }
+        }, Platform::runLater);
+    }
+
+    private void enterReplay(ReplayPlayer player) {
+        if (replay == null) {
+            suspendedGame = game;
+            if (timer != null) {
+                timer.stop();
+            }
+        } else {
+            stopReplayAutoplay();
+        }
+        replay = player;
+        game = player.getGame();
+        dragFromColumn = -1;
+        dragFromIndex = -1;
+        dragging = false;
+        clearDragGroup();
+        clearHidden();
+        pendingRender = ChangeMask.ALL;
+        refreshDirty();
+        view.updateGameMode(game.getGameMode());
+        showReplayPosition();
+    }
+
+    /**
+     * 退出回放并恢复原牌局；不在回放时什么也不做
+     */
+    private void exitReplay() {
+        if (replay == null) {
+            return;
+        }
+        stopReplayAutoplay();
+        replay = null;
+        game = suspendedGame;
+        suspendedGame = null;
+        pendingRender = ChangeMask.ALL;
+        refreshDirty();
+        view.updateGameMode(game.getGameMode());
+        lastFoundationCount = game.getFoundations().size();
+        if (!game.isGameWon()) {
+            initTimer();
+        }
+        view.setMessage("已退出回放");
+    }
+
+    private void onReplayKey(KeyEvent event) {
+        if (replay == null) {
+            return;
+        }
+        switch (event.getCode()) {
+            case RIGHT -> replayStep(1);
+            case LEFT -> replayStep(-1);
+            case PAGE_DOWN -> replayStep(REPLAY_PAGE);
+            case PAGE_UP -> replayStep(-REPLAY_PAGE);
+            case HOME -> replaySeek(0);
+            case END -> replaySeek(replay.length());
+            case SPACE -> toggleReplayAutoplay();
+            case G -> promptReplaySeek();
+            case ESCAPE -> exitReplay();
+            default -> {
+                return;
+            }
+        }
+        event.consume();
+    }
+
+    private void replayStep(int delta) {
+        stopReplayAutoplay();
+        replaySeek(replay.getPosition() + delta);
+    }
+
+    /**
+     * 跳到第 target 步，界面只按模型报告的变化刷新一次，不播放动画
+     */
+    private void replaySeek(int target) {
+        replay.seek(target);
+        refreshDirty();
+        showReplayPosition();
+    }
+
+    private void promptReplaySeek() {
+        stopReplayAutoplay();
+        TextInputDialog dialog = new TextInputDialog(String.valueOf(replay.getPosition()));
+        dialog.setTitle("跳转");
+        dialog.setHeaderText("跳到第几步（0 - " + replay.length() + "）");
+        dialog.setContentText("步数:");
+        Optional<String> input = dialog.showAndWait();
+        if (input.isEmpty() || replay == null) {
+            return;
+        }
+        try {
+            replaySeek(Integer.parseInt(input.get().trim()));
+        } catch (NumberFormatException e) {
+            view.setMessage("请输入数字");
+        }
+    }
+
+    private void toggleReplayAutoplay() {
+        if (replayTimer != null) {
+            stopReplayAutoplay();
+            showReplayPosition();
+            return;
+        }
+        if (replay.isAtEnd()) {
+            replaySeek(0);
+        }
+        replayTimer = new Timeline(new KeyFrame(javafx.util.Duration.seconds(REPLAY_STEP_SECONDS), e -> {
+            replaySeek(replay.getPosition() + 1);
+            if (replay.isAtEnd()) {
+                stopReplayAutoplay();
+                showReplayPosition();
+            }
+        }));
+        replayTimer.setCycleCount(Timeline.INDEFINITE);
+        replayTimer.play();
+        showReplayPosition();
+    }
+
+    private void stopReplayAutoplay() {
+        if (replayTimer != null) {
+            replayTimer.stop();
+            replayTimer = null;
+        }
+    }
+
+    private void showReplayPosition() {
+        String state = replayTimer != null ? "播放中" : "暂停";
+        view.setMessage("回放 " + replay.getPosition() + "/" + replay.length() + "（" + state + "）"
+                + "  ←/→ 单步  空格 播放/暂停  G 跳转  Esc 退出");
+    }
+
     public void onShowAchievements() {
         Statistics stats = StatsManager.getInstance();
         
@@ -608,17 +1004,11 @@ public class GameController {
         
         recordsCard.getChildren().add(recordsHeader);
         for (SpiderGame.GameMode mode : SpiderGame.GameMode.values()) {
-            String modeName = "";
-            switch(mode) {
-                case SINGLE_SUIT: modeName = "单色难度"; break;
-                case TWO_SUITS: modeName = "双色难度"; break;
-                case FOUR_SUITS: modeName = "四色难度"; break;
-            }
             long time = stats.getFastestTime(mode);
-            String timeStr = (time == Long.MAX_VALUE) ? "--:--" : String.format("%02d:%02d", time / 60, time % 60);
+            String timeStr = (time == Long.MAX_VALUE) ? "--:--" : formatSeconds(time);
             
             HBox modeRow = new HBox(15);
-            Label nameLabel = new Label(modeName);
+            Label nameLabel = new Label(modeName(mode));
             nameLabel.getStyleClass().add("apple-label");
             nameLabel.setPrefWidth(80);
             
@@ -632,7 +1022,29 @@ public class GameController {
             recordsCard.getChildren().add(modeRow);
         }
         
-        // 3. 成就列表
+        // 3. 近期表现（逐局历史）
+        VBox recentCard = new VBox(10);
+        recentCard.getStyleClass().add("apple-card");
+
+        Label recentHeader = new Label("近期表现（最近 " + RECENT_GAMES + " 局）");
+        recentHeader.getStyleClass().add("apple-header");
+        recentCard.getChildren().add(recentHeader);
+
+        GameHistory history = GameHistory.getInstance();
+        for (SpiderGame.GameMode mode : SpiderGame.GameMode.values()) {
+            HistoryStats recent = history != null ? HistoryStats.of(history, mode, RECENT_GAMES) : null;
+            String value;
+            if (recent == null || recent.getGames() == 0) {
+                value = "暂无记录";
+            } else {
+                value = String.format("%d 局  胜率 %.0f%%  中位用时 %s",
+                        recent.getGames(), recent.getWinRate() * 100,
+                        formatSeconds(recent.winSecondsPercentile(0.5)));
+            }
+            recentCard.getChildren().add(createStatRow(modeName(mode), value));
+        }
+
+        // 4. 成就列表
         VBox achievementList = new VBox(10);
         Label achHeader = new Label("获得成就");
         achHeader.setStyle("-fx-font-size: 18px; -fx-font-weight: 700; -fx-text-fill: #1C1C1E; -fx-padding: 10 0 5 0;");
@@ -656,7 +1068,11 @@ public class GameController {
             VBox textInfo = new VBox(2);
             Label name = new Label(a.getName());
             name.getStyleClass().add("achievement-name");
-            Label desc = new Label(a.getDescription());
+            String description = a.getDescription();
+            if (!unlocked && a.hasProgress()) {
+                description += "（" + a.getProgress(stats) + "/" + a.getTarget() + "）";
+            }
+            Label desc = new Label(description);
             desc.getStyleClass().add("achievement-desc");
             
             textInfo.getChildren().addAll(name, desc);
@@ -664,7 +1080,7 @@ public class GameController {
             achievementsContainer.getChildren().add(row);
         }
         
-        root.getChildren().addAll(statsCard, recordsCard, achHeader, achievementsContainer);
+        root.getChildren().addAll(statsCard, recordsCard, recentCard, achHeader, achievementsContainer);
         
         ScrollPane scrollPane = new ScrollPane(root);
         scrollPane.setFitToWidth(true);
@@ -690,6 +1106,18 @@ public class GameController {
         alert.showAndWait();
     }
 
+    private static String formatSeconds(long seconds) {
+        return seconds < 0 ? "--:--" : String.format("%02d:%02d", seconds / 60, seconds % 60);
+    }
+
+    private static String modeName(SpiderGame.GameMode mode) {
+        switch (mode) {
+            case SINGLE_SUIT: return "单色难度";
+            case TWO_SUITS: return "双色难度";
+            default: return "四色难度";
+        }
+    }
+
     private HBox createStatRow(String label, String value) {
         HBox row = new HBox();
         row.setAlignment(Pos.CENTER_LEFT);
@@ -704,33 +1132,29 @@ public class GameController {
     }
 
     public void onChangeGameMode(SpiderGame.GameMode newMode) {
+        exitReplay();
         if (game.getGameMode() == newMode) {
             return;
         }
-        undoStack.clear();
+        recordHistory(false);
+        undoLog.clear();
         game = new SpiderGame(newMode);
+        historyRecorded = false;
         dragFromColumn = -1;
         dragFromIndex = -1;
         dragging = false;
         clearDragGroup();
         // 设置所有列的起始隐藏索引为0，确保新游戏发牌动画开始前牌是不可见的
-        for (ColumnView columnView : view.getColumns()) {
-            columnView.setHiddenFromIndex(0);
-        }
-        refreshColumns();
+        hideAll();
+        refreshDirty();
         view.updateGameMode(newMode);
-        view.updateStatus(game);
-        view.updateScore(game);
-        view.updateFoundations(game);
-        view.updateStockCount(game);
         game.setElapsedSeconds(0);
         initTimer();
         lastFoundationCount = game.getFoundations().size();
+        restartAutosave();
         view.playNewGameAnimation();
         
         // 记录统计数据
-        StatsManager.getInstance().incrementGamesPlayed();
-        StatsManager.saveStats();
-        StatsManager.checkAchievements(game);
+        StatsManager.recordGameStarted(game);
     }
 }
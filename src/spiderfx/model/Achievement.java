@@ -1,68 +1,87 @@
 package spiderfx.model;
 
-import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.ToLongFunction;
 
 public class Achievement {
     private final String id;
     private final String name;
     private final String description;
     private final AchievementCondition condition;
+    private final Set<StatEvent> triggers;     // 可能使条件成立的统计事件
+    private final ToLongFunction<Statistics> counter; // 计数类成就的当前进度，其余为 null
+    private final long target;
 
+    /**
+     * 任意统计事件后都需要检查的成就
+     */
     public Achievement(String id, String name, String description, AchievementCondition condition) {
+        this(id, name, description, condition, EnumSet.allOf(StatEvent.class), null, 0);
+    }
+
+    private Achievement(String id, String name, String description, AchievementCondition condition,
+                        Set<StatEvent> triggers, ToLongFunction<Statistics> counter, long target) {
         this.id = id;
         this.name = name;
         this.description = description;
         this.condition = condition;
+        this.triggers = Collections.unmodifiableSet(triggers);
+        this.counter = counter;
+        this.target = target;
+    }
+
+    /**
+     * 只在 trigger 事件之后检查的成就
+     */
+    public static Achievement on(StatEvent trigger, String id, String name, String description,
+                                 AchievementCondition condition) {
+        return new Achievement(id, name, description, condition, EnumSet.of(trigger), null, 0);
+    }
+
+    /**
+     * 计数达到 target 即解锁的成就，可显示进度（如 7/10）
+     */
+    public static Achievement counter(StatEvent trigger, String id, String name, String description,
+                                      long target, ToLongFunction<Statistics> counter) {
+        return new Achievement(id, name, description,
+                (stats, game) -> counter.applyAsLong(stats) >= target, EnumSet.of(trigger), counter, target);
     }
 
     public String getId() { return id; }
     public String getName() { return name; }
     public String getDescription() { return description; }
+    public Set<StatEvent> getTriggers() { return triggers; }
 
     public boolean isMet(Statistics stats, SpiderGame currentGame) {
         return condition.check(stats, currentGame);
     }
 
-    public interface AchievementCondition {
-        boolean check(Statistics stats, SpiderGame currentGame);
+    public boolean hasProgress() {
+        return counter != null;
     }
 
-    public static List<Achievement> getAllAchievements() {
-        List<Achievement> list = new ArrayList<>();
-        
-        list.add(new Achievement("NOVICE", "初出茅庐", "累计开始 1 场游戏", 
-            (stats, game) -> stats.getTotalGamesPlayed() >= 1));
-            
-        list.add(new Achievement("FIRST_WIN", "旗开得胜", "赢得第 1 场胜利", 
-            (stats, game) -> stats.getTotalWins() >= 1));
-
-        list.add(new Achievement("SINGLE_EXPERT", "单色专家", "赢得 10 场单色模式胜利", 
-            (stats, game) -> stats.getWinsByMode(SpiderGame.GameMode.SINGLE_SUIT) >= 10));
-
-        list.add(new Achievement("TWO_SUIT_PRO", "双色达人", "赢得 5 场双色模式胜利", 
-            (stats, game) -> stats.getWinsByMode(SpiderGame.GameMode.TWO_SUITS) >= 5));
-
-        list.add(new Achievement("FOUR_SUIT_KING", "四色之王", "赢得 1 场四色模式胜利", 
-            (stats, game) -> stats.getWinsByMode(SpiderGame.GameMode.FOUR_SUITS) >= 1));
-
-        list.add(new Achievement("SPEED_DEMON", "速度激情", "在 10 分钟 (600秒) 内赢得一场比赛", 
-            (stats, game) -> {
-                for (SpiderGame.GameMode mode : SpiderGame.GameMode.values()) {
-                    if (stats.getFastestTime(mode) <= 600) return true;
-                }
-                return false;
-            }));
+    /**
+     * 当前进度，不超过 {@link #getTarget()}；非计数类成就返回 0
+     */
+    public long getProgress(Statistics stats) {
+        return counter == null ? 0 : Math.min(counter.applyAsLong(stats), target);
+    }
 
-        list.add(new Achievement("ECONOMIST", "精打细算", "以少于 500 步赢得一场比赛", 
-            (stats, game) -> {
-                // 这个需要实时检查或者在胜利时记录
-                return game != null && game.isGameWon() && game.getMoves() < 500;
-            }));
+    public long getTarget() {
+        return target;
+    }
 
-        list.add(new Achievement("PERSISTENT", "百折不挠", "累计移动超过 10,000 步", 
-            (stats, game) -> stats.getTotalMoves() >= 10000));
+    public interface AchievementCondition {
+        boolean check(Statistics stats, SpiderGame currentGame);
+    }
 
-        return list;
+    /**
+     * 所有成就，只构建一次，见 {@link AchievementRegistry}
+     */
+    public static List<Achievement> getAllAchievements() {
+        return AchievementRegistry.all();
     }
 }
@@ -0,0 +1,75 @@
+package spiderfx.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 成就注册表
+ * 所有成就在类加载时声明一次，并按其依赖的 {@link StatEvent} 建立索引；
+ * 某个事件发生后只需检查 {@link #triggeredBy(StatEvent)} 返回的少数成就
+ */
+public final class AchievementRegistry {
+    private static final List<Achievement> ALL;
+    private static final Map<StatEvent, Achievement[]> BY_EVENT = new EnumMap<>(StatEvent.class);
+
+    static {
+        List<Achievement> list = new ArrayList<>();
+
+        list.add(Achievement.counter(StatEvent.GAME_STARTED, "NOVICE", "初出茅庐", "累计开始 1 场游戏",
+            1, Statistics::getTotalGamesPlayed));
+
+        list.add(Achievement.counter(StatEvent.WIN, "FIRST_WIN", "旗开得胜", "赢得第 1 场胜利",
+            1, Statistics::getTotalWins));
+
+        list.add(Achievement.counter(StatEvent.WIN, "SINGLE_EXPERT", "单色专家", "赢得 10 场单色模式胜利",
+            10, stats -> stats.getWinsByMode(SpiderGame.GameMode.SINGLE_SUIT)));
+
+        list.add(Achievement.counter(StatEvent.WIN, "TWO_SUIT_PRO", "双色达人", "赢得 5 场双色模式胜利",
+            5, stats -> stats.getWinsByMode(SpiderGame.GameMode.TWO_SUITS)));
+
+        list.add(Achievement.counter(StatEvent.WIN, "FOUR_SUIT_KING", "四色之王", "赢得 1 场四色模式胜利",
+            1, stats -> stats.getWinsByMode(SpiderGame.GameMode.FOUR_SUITS)));
+
+        list.add(Achievement.on(StatEvent.WIN, "SPEED_DEMON", "速度激情", "在 10 分钟 (600秒) 内赢得一场比赛",
+            (stats, game) -> {
+                for (SpiderGame.GameMode mode : SpiderGame.GameMode.values()) {
+                    if (stats.getFastestTime(mode) <= 600) return true;
+                }
+                return false;
+            }));
+
+        list.add(Achievement.on(StatEvent.WIN, "ECONOMIST", "精打细算", "以少于 500 步赢得一场比赛",
+            (stats, game) -> game != null && game.isGameWon() && game.getMoves() < 500));
+
+        list.add(Achievement.counter(StatEvent.MOVE, "PERSISTENT", "百折不挠", "累计移动超过 10,000 步",
+            10000, Statistics::getTotalMoves));
+
+        ALL = Collections.unmodifiableList(list);
+        for (StatEvent event : StatEvent.values()) {
+            List<Achievement> matching = new ArrayList<>();
+            for (Achievement a : ALL) {
+                if (a.getTriggers().contains(event)) {
+                    matching.add(a);
+                }
+            }
+            BY_EVENT.put(event, matching.toArray(new Achievement[0]));
+        }
+    }
+
+    private AchievementRegistry() {
+    }
+
+    public static List<Achievement> all() {
+        return ALL;
+    }
+
+    /**
+     * 依赖该事件的成就（不可修改，调用方不要改动数组内容）
+     */
+    static Achievement[] triggeredBy(StatEvent event) {
+        return BY_EVENT.get(event);
+    }
+}
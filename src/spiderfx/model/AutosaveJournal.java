@@ -0,0 +1,272 @@
+package spiderfx.model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * 自动存档日志（autosave.journal）
+ * 开局时写入一次初始牌面，之后每步操作只在末尾追加几个字节；
+ * 下次启动时重放日志即可恢复进行中的牌局和它的撤销/重做历史
+ *
+ * 文件格式：
+ * 头部：magic "SPAJ"(4) | 版本(1) | 牌面长度(varint) | 初始牌面（{@link SpiderGame#writeBinary}）| 牌面 CRC32(4)
+ * 记录：类型(1) + 参数
+ *   MOVE    移牌或发牌，参数为 {@link GameChange} 编码(varint)，重放时经 {@link UndoLog#record} 与 redoChange 执行
+ *   UNDO    撤销一步
+ *   REDO    重做一步
+ *   ELAPSED 用时秒数(varint)，仅在变化时随下一条操作写入，退出时再补写一次
+ *
+ * 胜利后日志照常保留：重放到已胜利的局面时 {@link #replay(Path)} 返回 null，
+ * 而胜利后又撤销、继续玩下去的牌局会连同撤销历史一起恢复
+ *
+ * 追加不做 fsync，崩溃最多丢失末尾几步；写到一半的记录或与局面不符的记录之后的内容在重放时丢弃
+ * 写入失败时打印一次错误并停用日志，不影响游戏
+ */
+public final class AutosaveJournal implements Closeable {
+    public static final String AUTOSAVE_FILE = "autosave.journal";
+    static final int MAGIC = 0x5350414A; // "SPAJ"
+    static final int VERSION = 1;
+    private static final int MAX_HEADER_BYTES = 1024;
+
+    private static final byte MOVE = 1;
+    private static final byte UNDO = 2;
+    private static final byte REDO = 3;
+    private static final byte ELAPSED = 4;
+
+    /**
+     * 重放得到的牌局与撤销日志
+     */
+    public static final class Resume {
+        private final SpiderGame game;
+        private final UndoLog undoLog;
+        private final long validLength;
+
+        private Resume(SpiderGame game, UndoLog undoLog, long validLength) {
+            this.game = game;
+            this.undoLog = undoLog;
+            this.validLength = validLength;
+        }
+
+        public SpiderGame getGame() {
+            return game;
+        }
+
+        public UndoLog getUndoLog() {
+            return undoLog;
+        }
+    }
+
+    private final FileChannel channel;
+    private final ByteBuffer record = ByteBuffer.allocate(16);
+    private long lastElapsed;
+    private boolean failed;
+
+    private AutosaveJournal(FileChannel channel, long lastElapsed) {
+        this.channel = channel;
+        this.lastElapsed = lastElapsed;
+    }
+
+    /**
+     * 新建日志，以 game 的当前局面为起点
+     */
+    public static AutosaveJournal create(Path path, SpiderGame game) throws IOException {
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        AutosaveJournal journal = new AutosaveJournal(channel, game.getElapsedSeconds());
+        try {
+            journal.writeHeader(game);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return journal;
+    }
+
+    /**
+     * 在 {@link #replay(Path)} 的结果之后继续追加，丢弃末尾无效的部分
+     */
+    public static AutosaveJournal resume(Path path, Resume resume) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            channel.truncate(resume.validLength);
+            channel.position(resume.validLength);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return new AutosaveJournal(channel, resume.game.getElapsedSeconds());
+    }
+
+    /**
+     * 读取日志并重放；文件不存在、头部损坏或牌局已经结束时返回 null
+     */
+    public static Resume replay(Path path) {
+        if (!Files.isRegularFile(path)) {
+            return null;
+        }
+        ByteBuffer in;
+        try {
+            in = ByteBuffer.wrap(Files.readAllBytes(path));
+        } catch (IOException e) {
+            System.err.println("Failed to read autosave: " + e.getMessage());
+            return null;
+        }
+        SpiderGame game;
+        try {
+            if (in.getInt() != MAGIC || in.get() != VERSION) {
+                return null;
+            }
+            int length = SaveCodec.getCount(in, Math.min(MAX_HEADER_BYTES, in.remaining()), "autosave header");
+            int start = in.position();
+            CRC32 crc = new CRC32();
+            crc.update(in.array(), start, length);
+            if (in.getInt(start + length) != (int) crc.getValue()) {
+                return null;
+            }
+            game = SpiderGame.readBinary(ByteBuffer.wrap(in.array(), start, length).slice());
+            in.position(start + length + 4);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Ignoring unreadable autosave: " + e.getMessage());
+            return null;
+        }
+
+        UndoLog undoLog = new UndoLog();
+        int valid = in.position();
+        try {
+            while (in.hasRemaining()) {
+                byte type = in.get();
+                if (type == MOVE) {
+                    int change = SaveCodec.getVarint(in);
+                    if (!game.redoChange(change)) {
+                        break;
+                    }
+                    undoLog.record(game.getLastChange());
+                } else if (type == UNDO) {
+                    if (!undoLog.canUndo()) {
+                        break;
+                    }
+                    game.undoChange(undoLog.undo());
+                } else if (type == REDO) {
+                    if (!undoLog.canRedo()) {
+                        break;
+                    }
+                    if (!game.redoChange(undoLog.redo())) {
+                        undoLog.undo();
+                        break;
+                    }
+                } else if (type == ELAPSED) {
+                    game.setElapsedSeconds(SaveCodec.getVarlong(in));
+                } else {
+                    break;
+                }
+                valid = in.position();
+            }
+        } catch (IOException | BufferUnderflowException e) {
+            // 写到一半的最后一条记录
+        }
+        if (game.isGameWon()) {
+            return null;
+        }
+        game.takeDirty(); // 界面首次刷新时整体重画即可
+        return new Resume(game, undoLog, valid);
+    }
+
+    /**
+     * 开始新的一局：清空日志并写入新的初始牌面
+     */
+    public void restart(SpiderGame game) {
+        if (failed) return;
+        try {
+            writeHeader(game);
+            lastElapsed = game.getElapsedSeconds();
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * 一次成功的移牌或发牌
+     */
+    public void recordMove(int change, long elapsedSeconds) {
+        beginRecord(elapsedSeconds);
+        record.put(MOVE);
+        SaveCodec.putVarint(record, change);
+        flushRecord();
+    }
+
+    public void recordUndo(long elapsedSeconds) {
+        beginRecord(elapsedSeconds);
+        record.put(UNDO);
+        flushRecord();
+    }
+
+    public void recordRedo(long elapsedSeconds) {
+        beginRecord(elapsedSeconds);
+        record.put(REDO);
+        flushRecord();
+    }
+
+    /**
+     * 补写上一条操作之后的用时（退出时调用），用时未变时不写
+     */
+    public void recordElapsed(long elapsedSeconds) {
+        beginRecord(elapsedSeconds);
+        flushRecord();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void beginRecord(long elapsedSeconds) {
+        record.clear();
+        if (elapsedSeconds != lastElapsed) {
+            record.put(ELAPSED);
+            SaveCodec.putVarlong(record, elapsedSeconds);
+            lastElapsed = elapsedSeconds;
+        }
+    }
+
+    private void flushRecord() {
+        if (failed) return;
+        record.flip();
+        try {
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    private void writeHeader(SpiderGame game) throws IOException {
+        ByteBuffer body = ByteBuffer.allocate(MAX_HEADER_BYTES);
+        game.writeBinary(body);
+        CRC32 crc = new CRC32();
+        crc.update(body.array(), 0, body.position());
+        ByteBuffer header = ByteBuffer.allocate(MAX_HEADER_BYTES + 16);
+        header.putInt(MAGIC).put((byte) VERSION);
+        SaveCodec.putVarint(header, body.position());
+        header.put(body.array(), 0, body.position());
+        header.putInt((int) crc.getValue());
+        header.flip();
+        channel.truncate(0);
+        channel.position(0);
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+    }
+
+    private void fail(IOException e) {
+        failed = true;
+        System.err.println("Autosave disabled: " + e.getMessage());
+    }
+}
@@ -11,14 +11,39 @@ public class Card implements Serializable { // 声明 Card 类并实现 Serializ
         CLUB
     }
 
+    private static final Card[] INTERNED = new Card[128]; // 按 (编码, 翻开状态) 缓存的共享实例
+
+    static {
+        for (Suit suit : Suit.values()) {
+            for (int rank = 1; rank <= 13; rank++) {
+                byte code = PackedBoard.pack(suit, rank);
+                INTERNED[code] = new Card(suit, rank, false);
+                INTERNED[code | 64] = new Card(suit, rank, true);
+            }
+        }
+    }
+
     private final Suit suit; // 存储卡片花色
     private final int rank; // 存储卡牌点数（1-13）
-    private boolean faceUp; // 标识卡牌是否正面朝上（翻开状态）
+    private final boolean faceUp; // 标识卡牌是否正面朝上（翻开状态）
 
     public Card(Suit suit, int rank) {
+        this(suit, rank, false);
+    }
+
+    private Card(Suit suit, int rank, boolean faceUp) {
         this.suit = suit;
         this.rank = rank;
-        this.faceUp = false;
+        this.faceUp = faceUp;
+    }
+
+    /**
+     * 获取紧凑编码对应的共享卡片实例
+     * 牌面由 {@link PackedBoard} 以 byte 存储，对外暴露的 Card 只是只读视图，
+     * 因此同一编码与翻开状态可共用一个实例；Card 不可变，翻牌只发生在牌面数组上
+     */
+    static Card of(byte code, boolean faceUp) {
+        return INTERNED[faceUp ? code | 64 : code];
     }
 
     public Suit getSuit() {
@@ -33,10 +58,6 @@ public class Card implements Serializable { // 声明 Card 类并实现 Serializ
         return faceUp;
     }
 
-    public void setFaceUp(boolean faceUp) {
-        this.faceUp = faceUp;
-    }
-
     public String getRankSymbol() { // 根据点数返回对应的符号表示（A、J、Q、K 或数字字符串）
         switch (rank) {
             case 1:
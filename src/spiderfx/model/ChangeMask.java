@@ -0,0 +1,30 @@
+package spiderfx.model;
+
+/**
+ * 界面需要刷新的部分的位掩码，由 {@link SpiderGame#takeDirty()} 返回
+ *
+ * 位布局：
+ * bit 0-9      对应列的牌有变化
+ * bit 10       牌堆有变化
+ * bit 11       完成区有变化
+ * bit 12       分数、步数或完成组数有变化
+ */
+public final class ChangeMask {
+    public static final int ALL_COLUMNS = (1 << SpiderGame.COLUMN_COUNT) - 1;
+    public static final int STOCK = 1 << 10;
+    public static final int FOUNDATIONS = 1 << 11;
+    public static final int SCORE = 1 << 12;
+    public static final int ALL = ALL_COLUMNS | STOCK | FOUNDATIONS | SCORE;
+    public static final int NONE = 0;
+
+    private ChangeMask() {
+    }
+
+    public static int column(int index) {
+        return 1 << index;
+    }
+
+    public static boolean isColumnDirty(int mask, int index) {
+        return (mask & (1 << index)) != 0;
+    }
+}
@@ -0,0 +1,81 @@
+package spiderfx.model;
+
+/**
+ * 可复现的发牌生成器
+ * 同一 (模式, 种子) 在任何 JVM 上都得到相同的洗牌结果；不依赖 JavaFX，
+ * 可在无界面环境下批量生成牌局用于模拟与基准测试
+ *
+ * 用法：java -cp out spiderfx.model.DealGenerator [模式] [牌局数] [起始种子]
+ * 输出生成速率与所有牌局的校验和（不同机器上校验和应一致）
+ */
+public final class DealGenerator {
+    private DealGenerator() {
+    }
+
+    /**
+     * 按模式与种子生成洗好的牌组（{@link PackedBoard} 编码），发牌时从数组末尾取牌
+     *
+     * @param deck 长度至少为 104，结果写入其中，不分配对象
+     */
+    static void shuffle(SpiderGame.GameMode mode, long seed, byte[] deck) {
+        Card.Suit[] suits = suitsFor(mode);
+        int copiesPerSuit = 8 / suits.length;
+        int n = 0;
+        for (Card.Suit suit : suits) {
+            for (int copy = 0; copy < copiesPerSuit; copy++) {
+                for (int rank = 1; rank <= 13; rank++) {
+                    deck[n++] = PackedBoard.pack(suit, rank);
+                }
+            }
+        }
+        SplitMix64 random = new SplitMix64(seed);
+        for (int i = n - 1; i > 0; i--) { // Fisher-Yates 洗牌
+            int j = random.nextInt(i + 1);
+            byte tmp = deck[i];
+            deck[i] = deck[j];
+            deck[j] = tmp;
+        }
+    }
+
+    static Card.Suit[] suitsFor(SpiderGame.GameMode mode) {
+        switch (mode) {
+            case SINGLE_SUIT:
+                return new Card.Suit[]{Card.Suit.SPADE};
+            case TWO_SUITS:
+                return new Card.Suit[]{Card.Suit.SPADE, Card.Suit.HEART};
+            case FOUR_SUITS:
+                return new Card.Suit[]{Card.Suit.SPADE, Card.Suit.HEART, Card.Suit.DIAMOND, Card.Suit.CLUB};
+            default:
+                throw new IllegalArgumentException("Unknown game mode: " + mode);
+        }
+    }
+
+    /**
+     * 由一个主种子派生出 count 个牌局种子，结果同样可复现
+     */
+    public static long[] seeds(long masterSeed, int count) {
+        SplitMix64 random = new SplitMix64(masterSeed);
+        long[] seeds = new long[count];
+        for (int i = 0; i < count; i++) {
+            seeds[i] = random.nextLong();
+        }
+        return seeds;
+    }
+
+    public static void main(String[] args) {
+        SpiderGame.GameMode mode = args.length > 0 ? SpiderGame.GameMode.valueOf(args[0]) : SpiderGame.GameMode.FOUR_SUITS;
+        int count = args.length > 1 ? Integer.parseInt(args[1]) : 5_000_000;
+        long firstSeed = args.length > 2 ? Long.parseLong(args[2]) : 1L;
+
+        byte[] deck = new byte[PackedBoard.DECK_SIZE];
+        long checksum = 0;
+        long begin = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            shuffle(mode, firstSeed + i, deck);
+            checksum = checksum * 31 + deck[0] + deck[51] * 7 + deck[103] * 13;
+        }
+        double seconds = (System.nanoTime() - begin) / 1e9;
+        System.out.printf("mode=%s deals=%d time=%.3fs rate=%.0f deals/s checksum=%016x%n",
+                mode, count, seconds, count / seconds, checksum);
+    }
+}
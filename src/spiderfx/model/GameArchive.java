@@ -0,0 +1,915 @@
+package spiderfx.model;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 逐局归档（games.archive），供批量分析使用
+ * 与 {@link GameHistory} 的定长记录不同，这里每局还保存完整走法（{@link Replay} 的步编码），
+ * 按块列式存储：同一块内每个字段连续存放，再整块用 Deflate 压缩；
+ * 块头不压缩，带有区间摘要（zone map），读取时摘要不可能满足查询的块直接跳过，不读也不解压
+ *
+ * 文件格式：
+ * 头部：magic "SPGA"(4) | 版本(4)
+ * 块：块头长度(2) | 块头 | 压缩后的列数据
+ *   块头：压缩长度(4) | 原始长度(4) | 局数(4) | CRC32(4，覆盖压缩数据)
+ *        | 最早、最晚结束时间戳(8+8) | 最短用时(4) | 胜局数(4) | 胜局最短用时(4)
+ *        | 模式字典：项数(1) + 每项名称长度(1) + 名称（ASCII），只含本块出现过的模式
+ *   列，依次为：
+ *        模式（字典下标，每局 1 字节）| 结束时间戳（首个 zigzag varlong，之后为与前一局的差值）
+ *        | 是否胜利（位图）| 起点是否为新发牌（位图）| 分数（zigzag varint）| 用时 | 发牌次数 | 步数（varint）
+ *        | 种子(8) | 走法条数（varint）| 全部走法（varint，逐局拼接）
+ *
+ * 写入端把结束的牌局缓存在内存中，攒满 {@link #BLOCK_GAMES} 局或关闭时写出一块并落盘；
+ * 尚未成块的牌局同时逐局追加到待写日志（games.archive.pending），下次打开时读回，
+ * 因此进程崩溃或被杀不会丢失已结束的牌局。日志头记下它所接续的归档长度，块写完后日志作废，不会重复归档
+ * 待写日志与自动存档一样不做 fsync，断电时仍可能丢失最近几局；写日志失败时这些牌局只在内存中，直到写成块
+ *
+ * 打开已有文件时丢弃末尾写到一半的块
+ */
+public final class GameArchive implements Closeable {
+    public static final String ARCHIVE_FILE = "games.archive";
+    public static final int BLOCK_GAMES = 1024;
+    static final int MAGIC = 0x53504741; // "SPGA"
+    static final int VERSION = 1;
+    static final int FILE_HEADER_BYTES = 8;
+    private static final int MAX_BLOCK_STEPS = 1 << 18; // 走法超过此数时提前写出一块
+    private static final int MAX_HEADER_BYTES = 1024;
+    private static final int MAX_RAW_BYTES = 32 << 20;
+    private static final SpiderGame.GameMode[] MODES = SpiderGame.GameMode.values();
+
+    static final String PENDING_SUFFIX = ".pending";
+    static final int PENDING_MAGIC = 0x53504750; // "SPGP"
+    static final int PENDING_HEADER_BYTES = 16;
+
+    private static GameArchive instance;
+
+    private final FileChannel channel;
+    private final FileChannel pendingLog;
+    private final Deflater deflater = new Deflater();
+    private final ByteBuffer row = ByteBuffer.allocate(64 * 1024);
+    private Block pending = new Block(64, 1024);
+    private boolean pendingLogFailed;
+
+    private GameArchive(FileChannel channel, FileChannel pendingLog) throws IOException {
+        this.channel = channel;
+        this.pendingLog = pendingLog;
+        if (channel.size() < FILE_HEADER_BYTES) {
+            ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_BYTES).putInt(MAGIC).putInt(VERSION);
+            header.flip();
+            channel.truncate(0);
+            writeFully(channel, header, 0);
+            channel.position(FILE_HEADER_BYTES);
+        } else {
+            ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_BYTES);
+            readFully(channel, header, 0);
+            if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                throw new IOException("Unrecognized game archive");
+            }
+            long end = validEnd(channel);
+            if (end < channel.size()) {
+                channel.truncate(end); // 上次写到一半的块
+            }
+            channel.position(end);
+        }
+        recoverPending();
+    }
+
+    /**
+     * 打开指定的归档文件用于追加，不存在时创建
+     */
+    public static GameArchive open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        FileChannel pendingLog = null;
+        try {
+            pendingLog = FileChannel.open(path.resolveSibling(path.getFileName() + PENDING_SUFFIX),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            return new GameArchive(channel, pendingLog);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            if (pendingLog != null) {
+                pendingLog.close();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 读回待写日志中的牌局；日志头记录的归档长度与当前不符（这些牌局已写成块）时丢弃日志
+     * 末尾写到一半或校验失败的记录及其之后的内容被截掉
+     */
+    private void recoverPending() throws IOException {
+        long base = channel.position();
+        long size = pendingLog.size();
+        long valid = 0;
+        if (size >= PENDING_HEADER_BYTES && size <= MAX_RAW_BYTES) {
+            ByteBuffer log = ByteBuffer.allocate((int) size);
+            readFully(pendingLog, log, 0);
+            log.flip();
+            if (log.getInt() == PENDING_MAGIC && log.getInt() == VERSION && log.getLong() == base) {
+                valid = PENDING_HEADER_BYTES;
+                try {
+                    while (log.remaining() >= 8) {
+                        int length = log.getInt();
+                        if (length < 0 || length + 4 > log.remaining()) {
+                            break;
+                        }
+                        CRC32 crc = new CRC32();
+                        crc.update(log.array(), log.position(), length);
+                        if (log.getInt(log.position() + length) != (int) crc.getValue()) {
+                            break;
+                        }
+                        pending.readRow(ByteBuffer.wrap(log.array(), log.position(), length).slice());
+                        log.position(log.position() + length + 4);
+                        valid = log.position();
+                    }
+                } catch (IOException | BufferUnderflowException e) {
+                    // 保留前面完整的记录
+                }
+            }
+        }
+        if (valid == 0) {
+            resetPendingLog(base);
+        } else {
+            pendingLog.truncate(valid);
+            pendingLog.position(valid);
+        }
+    }
+
+    /**
+     * 清空待写日志并记下它所接续的归档长度
+     */
+    private void resetPendingLog(long base) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(PENDING_HEADER_BYTES).putInt(PENDING_MAGIC).putInt(VERSION).putLong(base);
+        header.flip();
+        pendingLog.truncate(0);
+        writeFully(pendingLog, header, 0);
+        pendingLog.position(PENDING_HEADER_BYTES);
+    }
+
+    /**
+     * 工作目录下的 games.archive；打开失败时返回 null，调用方跳过归档
+     */
+    public static synchronized GameArchive getInstance() {
+        if (instance == null) {
+            try {
+                instance = open(Paths.get(ARCHIVE_FILE));
+            } catch (IOException e) {
+                System.err.println("Failed to open game archive: " + e.getMessage());
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * 写出缓存中的牌局并关闭（退出时调用）
+     */
+    public static synchronized void shutdown() {
+        if (instance != null) {
+            try {
+                instance.close();
+            } catch (IOException e) {
+                System.err.println("Failed to close game archive: " + e.getMessage());
+            }
+            instance = null;
+        }
+    }
+
+    /**
+     * 归档一局
+     *
+     * @param replay 这局的走法，见 {@link Replay#record}
+     */
+    public synchronized void append(SpiderGame game, boolean won, long timestamp, Replay replay) throws IOException {
+        int[] gameSteps = new int[replay.length()];
+        for (int i = 0; i < gameSteps.length; i++) {
+            gameSteps[i] = replay.step(i);
+        }
+        pending.add(game.getGameMode(), timestamp, won, replay.startsFromDeal(), game.getScore(),
+                (int) Math.min(game.getElapsedSeconds(), Integer.MAX_VALUE), game.getDeals(), game.getMoves(),
+                game.getDealSeed(), gameSteps);
+        logPending(pending.count - 1);
+        if (pending.count >= BLOCK_GAMES || pending.stepCount >= MAX_BLOCK_STEPS) {
+            flush();
+        }
+    }
+
+    /**
+     * 把缓存中的一局追加到待写日志：长度(4) | 记录 | CRC32(4)
+     * 与自动存档一样不做 fsync；写入失败时打印一次错误，之后只保留在内存中
+     */
+    private void logPending(int index) {
+        if (pendingLogFailed) {
+            return;
+        }
+        ByteBuffer record = row;
+        if (pending.stepCount(index) * 3 + 64 > record.capacity()) {
+            record = ByteBuffer.allocate(pending.stepCount(index) * 3 + 64);
+        }
+        record.clear();
+        record.position(4);
+        pending.writeRow(index, record);
+        int length = record.position() - 4;
+        record.putInt(0, length);
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), 4, length);
+        record.putInt((int) crc.getValue());
+        record.flip();
+        try {
+            while (record.hasRemaining()) {
+                pendingLog.write(record);
+            }
+        } catch (IOException e) {
+            pendingLogFailed = true;
+            System.err.println("Pending archive log disabled: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 把缓存的牌局写成一块并落盘；没有缓存时什么也不做
+     */
+    public synchronized void flush() throws IOException {
+        if (pending.count == 0) {
+            return;
+        }
+        ByteBuffer block = pending.encode(deflater);
+        long start = channel.position();
+        try {
+            while (block.hasRemaining()) {
+                channel.write(block);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            channel.truncate(start);
+            channel.position(start);
+            throw e;
+        }
+        pending = new Block(64, 1024);
+        // 块已落盘：日志头中的归档长度随之失效，即使下面清空失败，下次打开也会丢弃旧日志
+        try {
+            resetPendingLog(channel.position());
+            pendingLogFailed = false;
+        } catch (IOException e) {
+            pendingLogFailed = true;
+            System.err.println("Pending archive log disabled: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            deflater.end();
+            channel.close();
+            pendingLog.close();
+        }
+    }
+
+    /**
+     * 流式读取归档，只返回满足 query 的牌局
+     */
+    public static Reader read(Path path, Query query) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_BYTES);
+            readFully(channel, header, 0);
+            if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                throw new SaveCodec.CorruptSaveException("Not a game archive");
+            }
+            return new Reader(channel, query);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 从文件头之后逐块读取块头，返回最后一个完整块的结尾位置
+     */
+    private static long validEnd(FileChannel channel) throws IOException {
+        long size = channel.size();
+        long position = FILE_HEADER_BYTES;
+        ByteBuffer lengths = ByteBuffer.allocate(6);
+        while (position + lengths.capacity() <= size) {
+            lengths.clear();
+            readFully(channel, lengths, position);
+            int headerLength = lengths.getShort(0) & 0xFFFF;
+            long end = position + 2 + headerLength + (lengths.getInt(2) & 0xFFFFFFFFL);
+            if (headerLength < Summary.FIXED_BYTES || end > size) {
+                break;
+            }
+            position = end;
+        }
+        return position;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new SaveCodec.CorruptSaveException("Game archive is truncated");
+            }
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+    }
+
+    /**
+     * 查询条件，各条件之间为“且”；默认不限
+     * 例如四花色 600 秒内的胜局：{@code Query.all().mode(FOUR_SUITS).wonOnly().maxSeconds(600)}
+     */
+    public static final class Query {
+        private final SpiderGame.GameMode mode; // null 表示不限
+        private final boolean wonOnly;
+        private final int maxSeconds;
+        private final long fromTimestamp;
+        private final long toTimestamp;
+
+        private Query(SpiderGame.GameMode mode, boolean wonOnly, int maxSeconds, long fromTimestamp, long toTimestamp) {
+            this.mode = mode;
+            this.wonOnly = wonOnly;
+            this.maxSeconds = maxSeconds;
+            this.fromTimestamp = fromTimestamp;
+            this.toTimestamp = toTimestamp;
+        }
+
+        public static Query all() {
+            return new Query(null, false, Integer.MAX_VALUE, Long.MIN_VALUE, Long.MAX_VALUE);
+        }
+
+        public Query mode(SpiderGame.GameMode mode) {
+            return new Query(mode, wonOnly, maxSeconds, fromTimestamp, toTimestamp);
+        }
+
+        public Query wonOnly() {
+            return new Query(mode, true, maxSeconds, fromTimestamp, toTimestamp);
+        }
+
+        /**
+         * 用时不超过 seconds 秒
+         */
+        public Query maxSeconds(int seconds) {
+            return new Query(mode, wonOnly, seconds, fromTimestamp, toTimestamp);
+        }
+
+        /**
+         * 结束时间在 [from, to) 之内（毫秒时间戳）
+         */
+        public Query between(long from, long to) {
+            return new Query(mode, wonOnly, maxSeconds, from, to);
+        }
+
+        /**
+         * 按块摘要判断这一块是否可能含有满足条件的牌局
+         */
+        boolean mayMatch(Summary summary) {
+            if (summary.maxTimestamp < fromTimestamp || summary.minTimestamp >= toTimestamp) {
+                return false;
+            }
+            if (mode != null && summary.indexOf(mode) < 0) {
+                return false;
+            }
+            if (wonOnly) {
+                return summary.wins > 0 && summary.minWinSeconds <= maxSeconds;
+            }
+            return summary.minSeconds <= maxSeconds;
+        }
+
+        boolean matches(Block block, int row) {
+            return (mode == null || block.modes[row] == mode)
+                    && (!wonOnly || block.won[row])
+                    && block.seconds[row] <= maxSeconds
+                    && block.timestamps[row] >= fromTimestamp && block.timestamps[row] < toTimestamp;
+        }
+    }
+
+    /**
+     * 块头中的区间摘要，读取时无需解压即可判断整块能否跳过
+     */
+    static final class Summary {
+        static final int FIXED_BYTES = 4 * 4 + 8 * 2 + 4 * 3 + 1;
+
+        int compressedLength;
+        int rawLength;
+        int count;
+        int crc;
+        long minTimestamp = Long.MAX_VALUE;
+        long maxTimestamp = Long.MIN_VALUE;
+        int minSeconds = Integer.MAX_VALUE;
+        int wins;
+        int minWinSeconds = Integer.MAX_VALUE;
+        SpiderGame.GameMode[] dictionary = new SpiderGame.GameMode[0];
+
+        int indexOf(SpiderGame.GameMode mode) {
+            for (int i = 0; i < dictionary.length; i++) {
+                if (dictionary[i] == mode) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        void writeTo(ByteBuffer out) {
+            out.putInt(compressedLength).putInt(rawLength).putInt(count).putInt(crc);
+            out.putLong(minTimestamp).putLong(maxTimestamp);
+            out.putInt(minSeconds).putInt(wins).putInt(minWinSeconds);
+            out.put((byte) dictionary.length);
+            for (SpiderGame.GameMode mode : dictionary) {
+                byte[] name = mode.name().getBytes(StandardCharsets.US_ASCII);
+                out.put((byte) name.length).put(name);
+            }
+        }
+
+        static Summary readFrom(ByteBuffer in) throws SaveCodec.CorruptSaveException {
+            Summary summary = new Summary();
+            summary.compressedLength = in.getInt();
+            summary.rawLength = in.getInt();
+            summary.count = in.getInt();
+            summary.crc = in.getInt();
+            summary.minTimestamp = in.getLong();
+            summary.maxTimestamp = in.getLong();
+            summary.minSeconds = in.getInt();
+            summary.wins = in.getInt();
+            summary.minWinSeconds = in.getInt();
+            if (summary.compressedLength < 0 || summary.rawLength < 0 || summary.rawLength > MAX_RAW_BYTES
+                    || summary.count < 1 || summary.count > BLOCK_GAMES
+                    || summary.wins < 0 || summary.wins > summary.count) {
+                throw new SaveCodec.CorruptSaveException("Invalid block header in game archive");
+            }
+            int size = in.get() & 0xFF;
+            if (size < 1 || size > SpiderGame.GameMode.values().length) {
+                throw new SaveCodec.CorruptSaveException("Invalid mode dictionary in game archive: " + size);
+            }
+            summary.dictionary = new SpiderGame.GameMode[size];
+            for (int i = 0; i < size; i++) {
+                byte[] name = new byte[in.get() & 0xFF];
+                in.get(name);
+                try {
+                    summary.dictionary[i] = SpiderGame.GameMode.valueOf(new String(name, StandardCharsets.US_ASCII));
+                } catch (IllegalArgumentException e) {
+                    throw new SaveCodec.CorruptSaveException("Unknown game mode in game archive", e);
+                }
+            }
+            return summary;
+        }
+    }
+
+    /**
+     * 一块内的全部牌局，按列存放；写入端用作缓存，读取端用作解码结果
+     */
+    static final class Block {
+        int count;
+        SpiderGame.GameMode[] modes;
+        long[] timestamps;
+        boolean[] won;
+        boolean[] fromDeal;
+        int[] scores;
+        int[] seconds;
+        int[] deals;
+        int[] moves;
+        long[] seeds;
+        int[] stepStart; // 第 i 局的走法为 steps[stepStart[i], stepStart[i + 1])
+        int[] steps;
+        int stepCount;
+
+        Block(int games, int totalSteps) {
+            modes = new SpiderGame.GameMode[games];
+            timestamps = new long[games];
+            won = new boolean[games];
+            fromDeal = new boolean[games];
+            scores = new int[games];
+            seconds = new int[games];
+            deals = new int[games];
+            moves = new int[games];
+            seeds = new long[games];
+            stepStart = new int[games + 1];
+            steps = new int[totalSteps];
+        }
+
+        void add(SpiderGame.GameMode mode, long timestamp, boolean won, boolean fromDeal, int score,
+                 int seconds, int deals, int moves, long seed, int[] gameSteps) {
+            if (count == modes.length) {
+                int capacity = count * 2;
+                modes = Arrays.copyOf(modes, capacity);
+                timestamps = Arrays.copyOf(timestamps, capacity);
+                this.won = Arrays.copyOf(this.won, capacity);
+                this.fromDeal = Arrays.copyOf(this.fromDeal, capacity);
+                scores = Arrays.copyOf(scores, capacity);
+                this.seconds = Arrays.copyOf(this.seconds, capacity);
+                this.deals = Arrays.copyOf(this.deals, capacity);
+                this.moves = Arrays.copyOf(this.moves, capacity);
+                seeds = Arrays.copyOf(seeds, capacity);
+                stepStart = Arrays.copyOf(stepStart, capacity + 1);
+            }
+            int length = gameSteps.length;
+            if (stepCount + length > steps.length) {
+                steps = Arrays.copyOf(steps, Math.max(steps.length * 2, stepCount + length));
+            }
+            System.arraycopy(gameSteps, 0, steps, stepCount, length);
+            modes[count] = mode;
+            timestamps[count] = timestamp;
+            this.won[count] = won;
+            this.fromDeal[count] = fromDeal;
+            scores[count] = score;
+            this.seconds[count] = seconds;
+            this.deals[count] = deals;
+            this.moves[count] = moves;
+            seeds[count] = seed;
+            stepCount += length;
+            count++;
+            stepStart[count] = stepCount;
+        }
+
+        int stepCount(int row) {
+            return stepStart[row + 1] - stepStart[row];
+        }
+
+        /**
+         * 单独编码一局（写入待写日志），字段顺序与列相同
+         */
+        void writeRow(int row, ByteBuffer out) {
+            out.put((byte) modes[row].ordinal());
+            SaveCodec.putVarlong(out, SaveCodec.zigzag(timestamps[row]));
+            out.put((byte) ((won[row] ? 1 : 0) | (fromDeal[row] ? 2 : 0)));
+            SaveCodec.putVarlong(out, SaveCodec.zigzag(scores[row]));
+            SaveCodec.putVarint(out, seconds[row]);
+            SaveCodec.putVarint(out, deals[row]);
+            SaveCodec.putVarint(out, moves[row]);
+            out.putLong(seeds[row]);
+            SaveCodec.putVarint(out, stepCount(row));
+            for (int i = stepStart[row]; i < stepStart[row + 1]; i++) {
+                SaveCodec.putVarint(out, steps[i]);
+            }
+        }
+
+        /**
+         * 解码 {@link #writeRow} 写出的一局并追加到本块
+         */
+        void readRow(ByteBuffer in) throws SaveCodec.CorruptSaveException {
+            int mode = in.get();
+            if (mode < 0 || mode >= MODES.length) {
+                throw new SaveCodec.CorruptSaveException("Invalid game mode in pending archive log: " + mode);
+            }
+            long timestamp = SaveCodec.unzigzag(SaveCodec.getVarlong(in));
+            int flags = in.get();
+            int score = (int) SaveCodec.unzigzag(SaveCodec.getVarlong(in));
+            int seconds = SaveCodec.getCount(in, Integer.MAX_VALUE, "seconds");
+            int deals = SaveCodec.getCount(in, Integer.MAX_VALUE, "deal count");
+            int moves = SaveCodec.getCount(in, Integer.MAX_VALUE, "move count");
+            long seed = in.getLong();
+            int[] gameSteps = new int[SaveCodec.getCount(in, in.remaining(), "replay length")];
+            for (int i = 0; i < gameSteps.length; i++) {
+                gameSteps[i] = SaveCodec.getVarint(in);
+            }
+            add(MODES[mode], timestamp, (flags & 1) != 0, (flags & 2) != 0, score, seconds, deals, moves, seed,
+                    gameSteps);
+        }
+
+        /**
+         * 编码、压缩为一个完整的块（含块头长度与块头）
+         */
+        ByteBuffer encode(Deflater deflater) {
+            Summary summary = new Summary();
+            summary.count = count;
+            byte[] modeIndex = new byte[count];
+            for (int i = 0; i < count; i++) {
+                int index = summary.indexOf(modes[i]);
+                if (index < 0) {
+                    index = summary.dictionary.length;
+                    summary.dictionary = Arrays.copyOf(summary.dictionary, index + 1);
+                    summary.dictionary[index] = modes[i];
+                }
+                modeIndex[i] = (byte) index;
+                summary.minTimestamp = Math.min(summary.minTimestamp, timestamps[i]);
+                summary.maxTimestamp = Math.max(summary.maxTimestamp, timestamps[i]);
+                summary.minSeconds = Math.min(summary.minSeconds, seconds[i]);
+                if (won[i]) {
+                    summary.wins++;
+                    summary.minWinSeconds = Math.min(summary.minWinSeconds, seconds[i]);
+                }
+            }
+
+            ByteBuffer raw = ByteBuffer.allocate(count * 48 + stepCount * 3 + 16);
+            raw.put(modeIndex);
+            long previous = 0;
+            for (int i = 0; i < count; i++) {
+                SaveCodec.putVarlong(raw, SaveCodec.zigzag(timestamps[i] - previous));
+                previous = timestamps[i];
+            }
+            putBitmap(raw, won);
+            putBitmap(raw, fromDeal);
+            for (int i = 0; i < count; i++) {
+                SaveCodec.putVarlong(raw, SaveCodec.zigzag(scores[i]));
+            }
+            putVarints(raw, seconds);
+            putVarints(raw, deals);
+            putVarints(raw, moves);
+            for (int i = 0; i < count; i++) {
+                raw.putLong(seeds[i]);
+            }
+            for (int i = 0; i < count; i++) {
+                SaveCodec.putVarint(raw, stepCount(i));
+            }
+            for (int i = 0; i < stepCount; i++) {
+                SaveCodec.putVarint(raw, steps[i]);
+            }
+
+            deflater.reset();
+            deflater.setInput(raw.array(), 0, raw.position());
+            deflater.finish();
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(raw.position() / 2 + 64);
+            byte[] chunk = new byte[8192];
+            while (!deflater.finished()) {
+                int n = deflater.deflate(chunk);
+                compressed.write(chunk, 0, n);
+            }
+            byte[] payload = compressed.toByteArray();
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            summary.compressedLength = payload.length;
+            summary.rawLength = raw.position();
+            summary.crc = (int) crc.getValue();
+
+            ByteBuffer out = ByteBuffer.allocate(2 + MAX_HEADER_BYTES + payload.length);
+            out.position(2);
+            summary.writeTo(out);
+            out.putShort(0, (short) (out.position() - 2));
+            out.put(payload);
+            out.flip();
+            return out;
+        }
+
+        /**
+         * 解码 {@link #encode} 写出的列数据（已解压）
+         */
+        static Block decode(Summary summary, ByteBuffer raw) throws SaveCodec.CorruptSaveException {
+            int count = summary.count;
+            Block block = new Block(count, 0);
+            block.count = count;
+            try {
+                for (int i = 0; i < count; i++) {
+                    int index = raw.get();
+                    if (index < 0 || index >= summary.dictionary.length) {
+                        throw new SaveCodec.CorruptSaveException("Invalid mode index in game archive: " + index);
+                    }
+                    block.modes[i] = summary.dictionary[index];
+                }
+                long previous = 0;
+                for (int i = 0; i < count; i++) {
+                    previous += SaveCodec.unzigzag(SaveCodec.getVarlong(raw));
+                    block.timestamps[i] = previous;
+                }
+                getBitmap(raw, block.won);
+                getBitmap(raw, block.fromDeal);
+                for (int i = 0; i < count; i++) {
+                    block.scores[i] = (int) SaveCodec.unzigzag(SaveCodec.getVarlong(raw));
+                }
+                getCounts(raw, block.seconds, "seconds");
+                getCounts(raw, block.deals, "deal count");
+                getCounts(raw, block.moves, "move count");
+                for (int i = 0; i < count; i++) {
+                    block.seeds[i] = raw.getLong();
+                }
+                long total = 0;
+                for (int i = 0; i < count; i++) {
+                    total += SaveCodec.getCount(raw, raw.remaining(), "replay length");
+                    block.stepStart[i + 1] = (int) Math.min(total, Integer.MAX_VALUE);
+                }
+                if (total > raw.remaining()) { // 每条走法至少一个字节
+                    throw new SaveCodec.CorruptSaveException("Invalid replay length in game archive");
+                }
+                block.steps = new int[(int) total];
+                for (int i = 0; i < total; i++) {
+                    block.steps[i] = SaveCodec.getVarint(raw);
+                }
+                block.stepCount = (int) total;
+            } catch (BufferUnderflowException e) {
+                throw new SaveCodec.CorruptSaveException("Game archive block is truncated", e);
+            }
+            if (raw.hasRemaining()) {
+                throw new SaveCodec.CorruptSaveException("Unexpected trailing bytes in game archive block");
+            }
+            return block;
+        }
+
+        private void putVarints(ByteBuffer out, int[] column) {
+            for (int i = 0; i < count; i++) {
+                SaveCodec.putVarint(out, column[i]);
+            }
+        }
+
+        private void putBitmap(ByteBuffer out, boolean[] column) {
+            for (int i = 0; i < count; i += 8) {
+                int bits = 0;
+                for (int b = 0; b < 8 && i + b < count; b++) {
+                    if (column[i + b]) {
+                        bits |= 1 << b;
+                    }
+                }
+                out.put((byte) bits);
+            }
+        }
+
+        private static void getCounts(ByteBuffer in, int[] column, String what) throws SaveCodec.CorruptSaveException {
+            for (int i = 0; i < column.length; i++) {
+                column[i] = SaveCodec.getCount(in, Integer.MAX_VALUE, what);
+            }
+        }
+
+        private static void getBitmap(ByteBuffer in, boolean[] column) {
+            for (int i = 0; i < column.length; i += 8) {
+                int bits = in.get();
+                for (int b = 0; b < 8 && i + b < column.length; b++) {
+                    column[i + b] = (bits & (1 << b)) != 0;
+                }
+            }
+        }
+    }
+
+    /**
+     * 按查询条件流式读取的游标，一次只解压一块
+     * 用法：{@code while (reader.next()) { reader.mode(); reader.seconds(); ... }}
+     */
+    public static final class Reader implements Closeable {
+        private final FileChannel channel;
+        private final Query query;
+        private final Inflater inflater = new Inflater();
+        private final ByteBuffer lengths = ByteBuffer.allocate(2);
+        private long position = FILE_HEADER_BYTES;
+        private Block block;
+        private int row;
+        private int blocksRead;
+        private int blocksSkipped;
+
+        private Reader(FileChannel channel, Query query) {
+            this.channel = channel;
+            this.query = query;
+        }
+
+        /**
+         * 移动到下一局满足条件的牌局，读完时返回 false
+         */
+        public boolean next() throws IOException {
+            while (true) {
+                if (block != null) {
+                    while (++row < block.count) {
+                        if (query.matches(block, row)) {
+                            return true;
+                        }
+                    }
+                    block = null;
+                }
+                if (!nextBlock()) {
+                    return false;
+                }
+            }
+        }
+
+        /**
+         * 读取下一个摘要可能满足条件的块，摘要不满足的块只读块头
+         */
+        private boolean nextBlock() throws IOException {
+            long size = channel.size();
+            while (position < size) {
+                lengths.clear();
+                readFully(channel, lengths, position);
+                int headerLength = lengths.getShort(0) & 0xFFFF;
+                if (headerLength < Summary.FIXED_BYTES || headerLength > MAX_HEADER_BYTES) {
+                    throw new SaveCodec.CorruptSaveException("Invalid block header in game archive");
+                }
+                ByteBuffer header = ByteBuffer.allocate(headerLength);
+                readFully(channel, header, position + 2);
+                header.flip();
+                Summary summary;
+                try {
+                    summary = Summary.readFrom(header);
+                } catch (BufferUnderflowException e) {
+                    throw new SaveCodec.CorruptSaveException("Invalid block header in game archive", e);
+                }
+                long payloadStart = position + 2 + headerLength;
+                position = payloadStart + summary.compressedLength;
+                if (!query.mayMatch(summary)) {
+                    blocksSkipped++;
+                    continue;
+                }
+                ByteBuffer payload = ByteBuffer.allocate(summary.compressedLength);
+                readFully(channel, payload, payloadStart);
+                CRC32 crc = new CRC32();
+                crc.update(payload.array());
+                if ((int) crc.getValue() != summary.crc) {
+                    throw new SaveCodec.CorruptSaveException("Game archive block checksum mismatch");
+                }
+                block = Block.decode(summary, ByteBuffer.wrap(inflate(payload.array(), summary.rawLength)));
+                row = -1;
+                blocksRead++;
+                return true;
+            }
+            return false;
+        }
+
+        private byte[] inflate(byte[] payload, int rawLength) throws SaveCodec.CorruptSaveException {
+            byte[] raw = new byte[rawLength];
+            inflater.reset();
+            inflater.setInput(payload);
+            try {
+                int n = 0;
+                while (n < rawLength && !inflater.finished()) {
+                    int read = inflater.inflate(raw, n, rawLength - n);
+                    if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                        break;
+                    }
+                    n += read;
+                }
+                if (n != rawLength || !inflater.finished()) {
+                    throw new SaveCodec.CorruptSaveException("Game archive block has wrong length");
+                }
+            } catch (DataFormatException e) {
+                throw new SaveCodec.CorruptSaveException("Game archive block is corrupt", e);
+            }
+            return raw;
+        }
+
+        public SpiderGame.GameMode mode() {
+            return block.modes[row];
+        }
+
+        public long timestamp() {
+            return block.timestamps[row];
+        }
+
+        public boolean won() {
+            return block.won[row];
+        }
+
+        public int score() {
+            return block.scores[row];
+        }
+
+        public int seconds() {
+            return block.seconds[row];
+        }
+
+        public int deals() {
+            return block.deals[row];
+        }
+
+        public int moves() {
+            return block.moves[row];
+        }
+
+        public long seed() {
+            return block.seeds[row];
+        }
+
+        /**
+         * 归档的走法条数（包括发牌；读档开始的牌局只含读档之后的部分）
+         */
+        public int stepCount() {
+            return block.stepCount(row);
+        }
+
+        /**
+         * 这局的回放；起点不是新发牌（从存档读入）时无法还原起始局面，返回 null
+         */
+        public Replay replay() {
+            if (!block.fromDeal[row]) {
+                return null;
+            }
+            int from = block.stepStart[row];
+            return new Replay(new SpiderGame(block.modes[row], block.seeds[row]),
+                    Arrays.copyOfRange(block.steps, from, block.stepStart[row + 1]));
+        }
+
+        public int getBlocksRead() {
+            return blocksRead;
+        }
+
+        public int getBlocksSkipped() {
+            return blocksSkipped;
+        }
+
+        @Override
+        public void close() throws IOException {
+            inflater.end();
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package spiderfx.model;
+
+/**
+ * 一次移牌或发牌所造成变化的紧凑编码（一个 int）
+ * 只记录撤销/重做所需的最少信息：源列、目标列、移动张数、
+ * 是否翻开了源列或目标列的牌、是否完成了序列，以及分数变化
+ *
+ * 位布局：
+ * bit 0        类型（0 = 移牌，1 = 发牌）
+ * bit 1-4      源列
+ * bit 5-8      目标列
+ * bit 9-15     移动张数
+ * bit 16       移牌后翻开了源列顶牌
+ * bit 17       目标列形成了完整序列
+ * bit 18       移走完整序列后翻开了目标列顶牌
+ * bit 20-27    分数变化（绝对值）
+ *
+ * {@link #NONE} 为 0：移牌至少移动一张，发牌的 bit 0 为 1，所以 0 不会是任何有效变化；
+ * 误把 NONE 交给各解码方法时得到的是“从第 0 列移 0 张到第 0 列的移牌”，redoChange 会拒绝它，而不会被当成发牌
+ */
+public final class GameChange {
+    public static final int NONE = 0; // 没有变化（走法不合法）
+
+    private static final int DEAL_BIT = 1;
+    private static final int FROM_SHIFT = 1;
+    private static final int TO_SHIFT = 5;
+    private static final int COUNT_SHIFT = 9;
+    private static final int FLIP_SOURCE_BIT = 1 << 16;
+    private static final int COMPLETED_BIT = 1 << 17;
+    private static final int FLIP_TARGET_BIT = 1 << 18;
+    private static final int SCORE_SHIFT = 20;
+
+    private GameChange() {
+    }
+
+    static int move(int from, int to, int count, boolean flippedSource,
+                    boolean completed, boolean flippedTarget, int scoreDelta) {
+        int change = (from << FROM_SHIFT) | (to << TO_SHIFT) | (count << COUNT_SHIFT) | (scoreDelta << SCORE_SHIFT);
+        if (flippedSource) change |= FLIP_SOURCE_BIT;
+        if (completed) change |= COMPLETED_BIT;
+        if (flippedTarget) change |= FLIP_TARGET_BIT;
+        return change;
+    }
+
+    static int deal(int scoreDelta) {
+        return DEAL_BIT | (scoreDelta << SCORE_SHIFT);
+    }
+
+    public static boolean isDeal(int change) {
+        return (change & DEAL_BIT) != 0;
+    }
+
+    public static int from(int change) {
+        return (change >>> FROM_SHIFT) & 0x0F;
+    }
+
+    public static int to(int change) {
+        return (change >>> TO_SHIFT) & 0x0F;
+    }
+
+    public static int count(int change) {
+        return (change >>> COUNT_SHIFT) & 0x7F;
+    }
+
+    public static boolean flippedSource(int change) {
+        return (change & FLIP_SOURCE_BIT) != 0;
+    }
+
+    public static boolean completed(int change) {
+        return (change & COMPLETED_BIT) != 0;
+    }
+
+    public static boolean flippedTarget(int change) {
+        return (change & FLIP_TARGET_BIT) != 0;
+    }
+
+    public static int scoreDelta(int change) {
+        return (change >>> SCORE_SHIFT) & 0xFF;
+    }
+}
@@ -0,0 +1,210 @@
+package spiderfx.model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 逐局历史记录（history.dat）
+ * 每局结束（胜利或放弃）写入一条 32 字节的定长记录，文件整体内存映射，
+ * 查询时按下标直接读取映射区，不在堆上建立记录对象，几十万局也只占用页缓存
+ *
+ * 文件格式：
+ * 头部 32 字节：magic "SPGH"(4) | 版本(4) | 记录数(8) | 保留(16)
+ * 记录 32 字节：
+ * 0   模式 ordinal(1)
+ * 1   是否胜利(1)
+ * 2   发牌次数(2)
+ * 4   分数(4)
+ * 8   步数(4)
+ * 12  用时秒数(4)
+ * 16  牌局种子(8)
+ * 24  结束时间戳毫秒(8)
+ *
+ * 记录先写入数据区，再更新头部的记录数，写到一半崩溃只会丢失最后一条
+ */
+public final class GameHistory implements Closeable {
+    public static final String HISTORY_FILE = "history.dat";
+    public static final int RECORD_BYTES = 32;
+    static final int HEADER_BYTES = 32;
+    static final int MAGIC = 0x53504748; // "SPGH"
+    static final int VERSION = 1;
+    private static final int GROW_RECORDS = 16 * 1024; // 每次扩容的记录数（512KB）
+    private static final int OFF_COUNT = 8;
+    private static final SpiderGame.GameMode[] MODES = SpiderGame.GameMode.values();
+
+    private static GameHistory instance;
+
+    private final FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int count;
+
+    private GameHistory(FileChannel channel) throws IOException {
+        this.channel = channel;
+        long size = channel.size();
+        if (size < HEADER_BYTES) {
+            map(capacityBytes(GROW_RECORDS));
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            buffer.putLong(OFF_COUNT, 0);
+        } else {
+            map(size);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException("Unrecognized history file");
+            }
+            long stored = buffer.getLong(OFF_COUNT);
+            long fits = (size - HEADER_BYTES) / RECORD_BYTES;
+            count = (int) Math.max(0, Math.min(stored, fits));
+        }
+    }
+
+    /**
+     * 打开指定的历史文件，不存在时创建
+     */
+    public static GameHistory open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            return new GameHistory(channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 工作目录下的 history.dat；打开失败时返回 null，调用方跳过历史记录
+     */
+    public static synchronized GameHistory getInstance() {
+        if (instance == null) {
+            try {
+                instance = open(Paths.get(HISTORY_FILE));
+            } catch (IOException e) {
+                System.err.println("Failed to open game history: " + e.getMessage());
+            }
+        }
+        return instance;
+    }
+
+    public static synchronized void shutdown() {
+        if (instance != null) {
+            try {
+                instance.close();
+            } catch (IOException e) {
+                System.err.println("Failed to close game history: " + e.getMessage());
+            }
+            instance = null;
+        }
+    }
+
+    private static long capacityBytes(int records) {
+        return HEADER_BYTES + (long) records * RECORD_BYTES;
+    }
+
+    private void map(long bytes) throws IOException {
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    public synchronized int size() {
+        return count;
+    }
+
+    /**
+     * 追加一局的结果
+     */
+    public synchronized void append(SpiderGame game, boolean won, long timestamp) throws IOException {
+        long end = capacityBytes(count + 1);
+        if (end > buffer.capacity()) {
+            map(capacityBytes(count + GROW_RECORDS));
+        }
+        int at = (int) capacityBytes(count);
+        buffer.put(at, (byte) game.getGameMode().ordinal());
+        buffer.put(at + 1, (byte) (won ? 1 : 0));
+        buffer.putShort(at + 2, (short) Math.min(game.getDeals(), Short.MAX_VALUE));
+        buffer.putInt(at + 4, game.getScore());
+        buffer.putInt(at + 8, game.getMoves());
+        buffer.putInt(at + 12, (int) Math.min(game.getElapsedSeconds(), Integer.MAX_VALUE));
+        buffer.putLong(at + 16, game.getDealSeed());
+        buffer.putLong(at + 24, timestamp);
+        count++;
+        buffer.putLong(OFF_COUNT, count);
+    }
+
+    /**
+     * 从最新一局向前遍历的游标，读取字段时直接访问映射区，不分配对象
+     */
+    public synchronized Cursor newest() {
+        return new Cursor(buffer, count);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    public static final class Cursor {
+        private final MappedByteBuffer buffer;
+        private int index;
+        private int at;
+
+        private Cursor(MappedByteBuffer buffer, int count) {
+            this.buffer = buffer;
+            this.index = count;
+        }
+
+        /**
+         * 移动到更早的一局，没有更多记录时返回 false
+         */
+        public boolean previous() {
+            if (index == 0) {
+                return false;
+            }
+            index--;
+            at = (int) capacityBytes(index);
+            return true;
+        }
+
+        public SpiderGame.GameMode mode() {
+            return MODES[buffer.get(at)];
+        }
+
+        public boolean isMode(SpiderGame.GameMode mode) {
+            return mode == null || buffer.get(at) == mode.ordinal();
+        }
+
+        public boolean won() {
+            return buffer.get(at + 1) != 0;
+        }
+
+        public int deals() {
+            return buffer.getShort(at + 2);
+        }
+
+        public int score() {
+            return buffer.getInt(at + 4);
+        }
+
+        public int moves() {
+            return buffer.getInt(at + 8);
+        }
+
+        public int seconds() {
+            return buffer.getInt(at + 12);
+        }
+
+        public long seed() {
+            return buffer.getLong(at + 16);
+        }
+
+        public long timestamp() {
+            return buffer.getLong(at + 24);
+        }
+    }
+}
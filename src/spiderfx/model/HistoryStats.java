@@ -0,0 +1,123 @@
+package spiderfx.model;
+
+/**
+ * 基于 {@link GameHistory} 的聚合查询
+ * 一次从最新记录向前的流式扫描得到局数、胜率、用时分位数和分数直方图；
+ * 用时按秒计入定长直方图，内存占用与记录数无关
+ */
+public final class HistoryStats {
+    public static final int MAX_TRACKED_SECONDS = 4 * 60 * 60; // 超过 4 小时的用时计入最后一格
+    public static final int SCORE_BUCKET = 100;
+    public static final int SCORE_BUCKETS = 14;
+
+    private final int[] winSeconds = new int[MAX_TRACKED_SECONDS + 1];
+    private final int[] scoreHistogram = new int[SCORE_BUCKETS];
+    private int games;
+    private int wins;
+    private int bestScore;
+
+    private HistoryStats() {
+    }
+
+    /**
+     * 统计最近 lastN 局（mode 为 null 表示所有模式）
+     */
+    public static HistoryStats of(GameHistory history, SpiderGame.GameMode mode, int lastN) {
+        HistoryStats stats = new HistoryStats();
+        GameHistory.Cursor cursor = history.newest();
+        while (stats.games < lastN && cursor.previous()) {
+            if (cursor.isMode(mode)) {
+                stats.add(cursor);
+            }
+        }
+        return stats;
+    }
+
+    private void add(GameHistory.Cursor cursor) {
+        games++;
+        int score = cursor.score();
+        scoreHistogram[Math.min(Math.max(score, 0) / SCORE_BUCKET, SCORE_BUCKETS - 1)]++;
+        if (cursor.won()) {
+            wins++;
+            bestScore = Math.max(bestScore, score);
+            winSeconds[Math.min(Math.max(cursor.seconds(), 0), MAX_TRACKED_SECONDS)]++;
+        }
+    }
+
+    public int getGames() {
+        return games;
+    }
+
+    public int getWins() {
+        return wins;
+    }
+
+    public double getWinRate() {
+        return games == 0 ? 0 : (double) wins / games;
+    }
+
+    public int getBestScore() {
+        return bestScore;
+    }
+
+    /**
+     * 胜局用时的 p 分位数（0..1，最近秩法），没有胜局时返回 -1
+     */
+    public int winSecondsPercentile(double p) {
+        if (wins == 0) {
+            return -1;
+        }
+        long rank = Math.max(1, (long) Math.ceil(p * wins));
+        long seen = 0;
+        for (int s = 0; s < winSeconds.length; s++) {
+            seen += winSeconds[s];
+            if (seen >= rank) {
+                return s;
+            }
+        }
+        return MAX_TRACKED_SECONDS;
+    }
+
+    /**
+     * 分数直方图，第 i 格为 [i*SCORE_BUCKET, (i+1)*SCORE_BUCKET)，最后一格包含更高分
+     */
+    public int[] getScoreHistogram() {
+        return scoreHistogram.clone();
+    }
+
+    /**
+     * 滑动窗口胜率序列：返回最近 points 个位置上、各自之前 window 局的胜率，按时间从早到晚排列
+     * 局数不足时序列变短
+     */
+    public static double[] rollingWinRate(GameHistory history, SpiderGame.GameMode mode, int window, int points) {
+        int needed = window + points - 1;
+        boolean[] won = new boolean[needed]; // 从新到旧
+        int n = 0;
+        GameHistory.Cursor cursor = history.newest();
+        while (n < needed && cursor.previous()) {
+            if (cursor.isMode(mode)) {
+                won[n++] = cursor.won();
+            }
+        }
+        int available = n - window + 1;
+        if (available <= 0) {
+            return new double[0];
+        }
+        double[] series = new double[available];
+        int inWindow = 0;
+        for (int i = n - 1; i >= n - window; i--) {
+            if (won[i]) inWindow++;
+        }
+        // 最早的窗口覆盖 won[n-window .. n-1]，之后每步向新的一侧移动一格
+        for (int k = 0; k < available; k++) {
+            series[k] = (double) inWindow / window;
+            if (k + 1 < available) {
+                int enter = n - window - 1 - k;
+                int leave = n - 1 - k;
+                if (won[enter]) inWindow++;
+                if (won[leave]) inWindow--;
+            }
+        }
+        return series;
+    }
+}
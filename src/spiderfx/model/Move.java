@@ -0,0 +1,40 @@
+package spiderfx.model;
+
+/**
+ * 合法走法的紧凑编码（一个 int），由 {@link SpiderGame#generateMoves(int[])} 产生
+ *
+ * 位布局：
+ * bit 0-3      源列
+ * bit 4-10     起始牌下标
+ * bit 11-14    目标列
+ * bit 15       发牌（此时其余位无意义）
+ */
+public final class Move {
+    public static final int DEAL = 1 << 15;
+
+    private static final int START_SHIFT = 4;
+    private static final int TO_SHIFT = 11;
+
+    private Move() {
+    }
+
+    public static int of(int from, int startIndex, int to) {
+        return from | (startIndex << START_SHIFT) | (to << TO_SHIFT);
+    }
+
+    public static boolean isDeal(int move) {
+        return (move & DEAL) != 0;
+    }
+
+    public static int from(int move) {
+        return move & 0x0F;
+    }
+
+    public static int startIndex(int move) {
+        return (move >>> START_SHIFT) & 0x7F;
+    }
+
+    public static int to(int move) {
+        return (move >>> TO_SHIFT) & 0x0F;
+    }
+}
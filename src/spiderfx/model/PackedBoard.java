@@ -0,0 +1,273 @@
+package spiderfx.model;
+
+/**
+ * 紧凑的牌面存储引擎
+ * 每张牌编码为一个 byte：高位为花色序号，低 4 位为点数（1-13）
+ * 每列是一段固定容量的 byte 数组，加上长度和背面朝下的牌数
+ * （蜘蛛纸牌中背面牌总是位于列底部，因此一个计数即可描述整列的翻开状态）
+ * 牌堆是一个 byte 栈，完成的序列只记录其花色
+ *
+ * 另外为每个位置记录“以该牌结尾的同花色递减翻开序列从哪里开始”，
+ * 每次改动只更新受影响的位置，于是任意列顶部可拖动序列的起点都能 O(1) 取得
+ *
+ * 局面哈希采用 Zobrist 方式：每个 (列, 位置, 牌)、(列, 背面牌数) 与牌堆深度各对应一个随机键，
+ * 哈希为所有现存键的异或，每次改动只异或进出变化的键
+ */
+final class PackedBoard {
+    static final int DECK_SIZE = 104; // 两副牌
+    static final int CAPACITY = DECK_SIZE; // 单列容量，取整副牌数保证不会越界
+    static final int STOCK_CAPACITY = 50; // 初始发牌后牌堆剩余 50 张
+    static final int FOUNDATION_CAPACITY = 8; // 最多 8 组完成序列
+
+    private static final int RANK_MASK = 0x0F;
+    private static final int SUIT_SHIFT = 4;
+
+    // 三类 Zobrist 键的取值空间互不重叠
+    private static final long CELL_KEYS = 0L;
+    private static final long FACE_DOWN_KEYS = 1L << 20;
+    private static final long STOCK_KEYS = 2L << 20;
+
+    final byte[] cells = new byte[SpiderGame.COLUMN_COUNT * CAPACITY]; // 各列牌面，第 c 列从 c * CAPACITY 开始
+    final byte[] lengths = new byte[SpiderGame.COLUMN_COUNT];           // 各列牌数
+    final byte[] faceDown = new byte[SpiderGame.COLUMN_COUNT];          // 各列底部背面朝下的牌数
+    final byte[] runStartAt = new byte[SpiderGame.COLUMN_COUNT * CAPACITY]; // 以该位置结尾的可拖动序列起点
+    final byte[] runStart = new byte[SpiderGame.COLUMN_COUNT];          // 各列顶部可拖动序列的起点（无则等于列长）
+    final byte[] stock = new byte[STOCK_CAPACITY];                      // 牌堆，末尾为堆顶
+    int stockSize;
+    final byte[] foundations = new byte[FOUNDATION_CAPACITY];           // 每组完成序列的花色
+    int foundationCount;
+    long hash = computeHash(); // Zobrist 局面哈希，随每次改动增量更新
+
+    static byte pack(Card.Suit suit, int rank) {
+        return (byte) ((suit.ordinal() << SUIT_SHIFT) | rank);
+    }
+
+    static int rankOf(byte card) {
+        return card & RANK_MASK;
+    }
+
+    static int suitOf(byte card) {
+        return card >>> SUIT_SHIFT;
+    }
+
+    /**
+     * SplitMix64 的终混函数，把不同的序号映射为彼此独立的 64 位随机键
+     * 按需计算，避免保存一张数十万项的随机数表
+     */
+    static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static long cellKey(int col, int index, byte card) {
+        return mix64(CELL_KEYS + (((long) (col * CAPACITY + index) << 6) | card));
+    }
+
+    private static long faceDownKey(int col, int count) {
+        return mix64(FACE_DOWN_KEYS + col * (CAPACITY + 1) + count);
+    }
+
+    private static long stockKey(int depth) {
+        return mix64(STOCK_KEYS + depth);
+    }
+
+    /**
+     * 从头计算局面哈希，结果应与增量维护的 {@link #hash} 一致
+     */
+    long computeHash() {
+        long h = stockKey(stockSize);
+        for (int col = 0; col < SpiderGame.COLUMN_COUNT; col++) {
+            h ^= faceDownKey(col, faceDown[col]);
+            for (int i = 0; i < lengths[col]; i++) {
+                h ^= cellKey(col, i, cells[col * CAPACITY + i]);
+            }
+        }
+        return h;
+    }
+
+    void clear() {
+        for (int col = 0; col < SpiderGame.COLUMN_COUNT; col++) {
+            lengths[col] = 0;
+            faceDown[col] = 0;
+            runStart[col] = 0;
+        }
+        stockSize = 0;
+        foundationCount = 0;
+        hash = computeHash();
+    }
+
+    void copyFrom(PackedBoard other) {
+        System.arraycopy(other.cells, 0, cells, 0, cells.length);
+        System.arraycopy(other.lengths, 0, lengths, 0, lengths.length);
+        System.arraycopy(other.faceDown, 0, faceDown, 0, faceDown.length);
+        System.arraycopy(other.runStartAt, 0, runStartAt, 0, runStartAt.length);
+        System.arraycopy(other.runStart, 0, runStart, 0, runStart.length);
+        System.arraycopy(other.stock, 0, stock, 0, stock.length);
+        stockSize = other.stockSize;
+        System.arraycopy(other.foundations, 0, foundations, 0, foundations.length);
+        foundationCount = other.foundationCount;
+        hash = other.hash;
+    }
+
+    int length(int col) {
+        return lengths[col];
+    }
+
+    int faceDownCount(int col) {
+        return faceDown[col];
+    }
+
+    byte card(int col, int index) {
+        return cells[col * CAPACITY + index];
+    }
+
+    boolean isFaceUp(int col, int index) {
+        return index >= faceDown[col];
+    }
+
+    byte top(int col) {
+        return cells[col * CAPACITY + lengths[col] - 1];
+    }
+
+    /**
+     * 列顶部同花色递减翻开序列的起始下标，列为空或列顶未翻开时等于列长
+     */
+    int runStart(int col) {
+        return runStart[col];
+    }
+
+    /**
+     * 计算 index 处（已翻开）的牌所在序列的起点：若它正好接在下面一张翻开牌之后则沿用其起点
+     */
+    private void linkRun(int col, int index) {
+        int base = col * CAPACITY;
+        int pos = base + index;
+        if (index > faceDown[col] && cells[pos] == (byte) (cells[pos - 1] - 1)) { // 同花色且点数减一，编码恰好减一
+            runStartAt[pos] = runStartAt[pos - 1];
+        } else {
+            runStartAt[pos] = (byte) index;
+        }
+    }
+
+    private void updateRunStart(int col) {
+        int len = lengths[col];
+        runStart[col] = len > faceDown[col] ? runStartAt[col * CAPACITY + len - 1] : (byte) len;
+    }
+
+    /**
+     * 在列顶放一张牌
+     * 背面朝下的牌只能压在背面牌上，以保持“背面牌在底部”的不变式
+     */
+    void push(int col, byte card, boolean faceUp) {
+        int len = lengths[col];
+        if (!faceUp && faceDown[col] != len) {
+            throw new IllegalStateException("Face-down card above face-up cards in column " + col);
+        }
+        cells[col * CAPACITY + len] = card;
+        lengths[col] = (byte) (len + 1);
+        hash ^= cellKey(col, len, card);
+        if (!faceUp) {
+            hash ^= faceDownKey(col, faceDown[col]) ^ faceDownKey(col, faceDown[col] + 1);
+            faceDown[col]++;
+        }
+        linkRun(col, len);
+        updateRunStart(col);
+    }
+
+    /**
+     * 若列顶是背面牌则将其翻开
+     *
+     * @return 是否发生了翻牌
+     */
+    boolean flipTop(int col) {
+        int len = lengths[col];
+        if (len > 0 && faceDown[col] == len) {
+            hash ^= faceDownKey(col, len) ^ faceDownKey(col, len - 1);
+            faceDown[col]--;
+            runStartAt[col * CAPACITY + len - 1] = (byte) (len - 1); // 下面全是背面牌，新翻开的牌自成一段
+            runStart[col] = (byte) (len - 1);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 撤销 {@link #flipTop(int)}：把列顶的翻开牌重新扣下
+     */
+    void unflipTop(int col) {
+        hash ^= faceDownKey(col, faceDown[col]) ^ faceDownKey(col, faceDown[col] + 1);
+        faceDown[col]++;
+        runStart[col] = lengths[col];
+    }
+
+    byte popTop(int col) {
+        int len = lengths[col] - 1;
+        lengths[col] = (byte) len;
+        updateRunStart(col);
+        byte card = cells[col * CAPACITY + len];
+        hash ^= cellKey(col, len, card);
+        return card;
+    }
+
+    /**
+     * 将 from 列从 start 开始的牌整体移到 to 列顶部
+     */
+    void moveRun(int from, int start, int to) {
+        int count = lengths[from] - start;
+        int targetStart = lengths[to];
+        System.arraycopy(cells, from * CAPACITY + start, cells, to * CAPACITY + targetStart, count);
+        lengths[from] = (byte) start;
+        lengths[to] = (byte) (targetStart + count);
+        for (int i = 0; i < count; i++) {
+            byte card = cells[to * CAPACITY + targetStart + i];
+            hash ^= cellKey(from, start + i, card) ^ cellKey(to, targetStart + i, card);
+            linkRun(to, targetStart + i);
+        }
+        updateRunStart(from);
+        updateRunStart(to);
+    }
+
+    void pushStock(byte card) {
+        hash ^= stockKey(stockSize) ^ stockKey(stockSize + 1);
+        stock[stockSize++] = card;
+    }
+
+    byte popStock() {
+        hash ^= stockKey(stockSize) ^ stockKey(stockSize - 1);
+        return stock[--stockSize];
+    }
+
+    /**
+     * 列末尾是否为 K 到 A 的同花色翻开序列
+     */
+    boolean hasCompleteRunAtTop(int col) {
+        int start = lengths[col] - SpiderGame.COMPLETE_SEQUENCE_LENGTH;
+        // 顶部序列已保证同花色递减，只需长度足够且倒数第 13 张为 K
+        return start >= 0 && start >= runStart[col] && rankOf(cells[col * CAPACITY + start]) == 13;
+    }
+
+    /**
+     * 移除列末尾的完整序列并记入完成区
+     */
+    void removeCompleteRun(int col) {
+        int start = lengths[col] - SpiderGame.COMPLETE_SEQUENCE_LENGTH;
+        byte king = cells[col * CAPACITY + start];
+        for (int i = start; i < lengths[col]; i++) {
+            hash ^= cellKey(col, i, cells[col * CAPACITY + i]);
+        }
+        lengths[col] = (byte) start;
+        foundations[foundationCount++] = (byte) suitOf(king);
+        updateRunStart(col);
+    }
+
+    /**
+     * 撤销 {@link #removeCompleteRun(int)}：把最后一组完成序列放回列顶
+     */
+    void restoreCompleteRun(int col) {
+        Card.Suit suit = Card.Suit.values()[foundations[--foundationCount]];
+        for (int rank = 13; rank >= 1; rank--) {
+            push(col, pack(suit, rank), true);
+        }
+    }
+}
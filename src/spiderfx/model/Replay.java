@@ -0,0 +1,182 @@
+package spiderfx.model;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * 牌局回放：起始局面加上之后的每一步移牌/发牌
+ * 可以导出进行中或已结束的牌局，由 {@link ReplayPlayer} 播放
+ *
+ * 文件格式（版本 1）：
+ * magic "SPRP"(4) | 版本(1) | 起始局面（{@link SpiderGame#writeBinary}，含模式与种子）| 步数(varint) | 每步(varint) | CRC32(4)
+ * 每步编码为 0 表示发牌，否则为 1 + 源列 + 10 × 目标列 + 100 × (张数 - 1)；
+ * 单张移牌只占一个字节，一局几百步的回放通常不到 1 KB
+ */
+public final class Replay {
+    public static final String REPLAY_SUFFIX = ".rpl";
+    static final int MAGIC = 0x53505250; // "SPRP"
+    static final int VERSION = 1;
+    static final int DEAL = 0;
+    private static final int CRC_BYTES = 4;
+    private static final int MAX_STEPS = 1 << 20;
+    private static final int MAX_FILE_BYTES = 4 << 20;
+    private static final int MAX_STEP = 1 + 99 + 100 * (PackedBoard.CAPACITY - 1);
+
+    private final SpiderGame initial;
+    private final int[] steps;
+
+    Replay(SpiderGame initial, int[] steps) {
+        this.initial = initial;
+        this.steps = steps;
+    }
+
+    /**
+     * 由当前牌局和它从起点以来的变化记录（{@link UndoLog#history()}）构造回放
+     * 起始局面通过逐步撤销得到，不修改 game
+     */
+    public static Replay record(SpiderGame game, int[] changes) {
+        SpiderGame initial = game.copy();
+        for (int i = changes.length - 1; i >= 0; i--) {
+            initial.undoChange(changes[i]);
+        }
+        int[] steps = new int[changes.length];
+        for (int i = 0; i < changes.length; i++) {
+            int change = changes[i];
+            steps[i] = GameChange.isDeal(change)
+                    ? DEAL
+                    : 1 + GameChange.from(change) + 10 * GameChange.to(change) + 100 * (GameChange.count(change) - 1);
+        }
+        return new Replay(initial, steps);
+    }
+
+    /**
+     * 起始局面的拷贝
+     */
+    public SpiderGame getInitial() {
+        return initial.copy();
+    }
+
+    public SpiderGame.GameMode getGameMode() {
+        return initial.getGameMode();
+    }
+
+    public int length() {
+        return steps.length;
+    }
+
+    /**
+     * 起始局面是否就是按种子新发的牌（而不是读档得到的中途局面），此时只凭模式和种子即可重建
+     */
+    public boolean startsFromDeal() {
+        return initial.getMoves() == 0 && initial.getDeals() == 0 && initial.getCompletedSequences() == 0;
+    }
+
+    int step(int index) {
+        return steps[index];
+    }
+
+    /**
+     * 在 game 上执行第 index 步
+     *
+     * @return 对应的 {@link GameChange} 编码，这一步在该局面下不合法时返回 {@link GameChange#NONE}
+     */
+    int apply(SpiderGame game, int index) {
+        int step = steps[index];
+        if (step == DEAL) {
+            return game.dealRow() ? game.getLastChange() : GameChange.NONE;
+        }
+        int from = (step - 1) % 10;
+        int to = (step - 1) / 10 % 10;
+        int count = (step - 1) / 100 + 1;
+        int start = game.getColumn(from).size() - count;
+        if (from == to || start < 0) {
+            return GameChange.NONE;
+        }
+        return game.moveSequence(from, start, to) ? game.getLastChange() : GameChange.NONE;
+    }
+
+    public byte[] encode() {
+        ByteBuffer out = ByteBuffer.allocate(1024 + steps.length * 3);
+        out.putInt(MAGIC).put((byte) VERSION);
+        initial.writeBinary(out);
+        SaveCodec.putVarint(out, steps.length);
+        for (int step : steps) {
+            SaveCodec.putVarint(out, step);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(out.array(), 0, out.position());
+        out.putInt((int) crc.getValue());
+        return Arrays.copyOf(out.array(), out.position());
+    }
+
+    /**
+     * 解码并校验回放文件；各步是否合法由 {@link ReplayPlayer} 在模拟时检查
+     */
+    public static Replay decode(byte[] bytes) throws SaveCodec.CorruptSaveException {
+        if (bytes.length < 5 + CRC_BYTES) {
+            throw new SaveCodec.CorruptSaveException("Replay file is truncated (" + bytes.length + " bytes)");
+        }
+        ByteBuffer in = ByteBuffer.wrap(bytes, 0, bytes.length - CRC_BYTES);
+        if (in.getInt() != MAGIC) {
+            throw new SaveCodec.CorruptSaveException("Not a replay file");
+        }
+        int version = in.get();
+        if (version != VERSION) {
+            throw new SaveCodec.CorruptSaveException("Unsupported replay version " + version);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length - CRC_BYTES);
+        if ((int) crc.getValue() != ByteBuffer.wrap(bytes, bytes.length - CRC_BYTES, CRC_BYTES).getInt()) {
+            throw new SaveCodec.CorruptSaveException("Replay file checksum mismatch");
+        }
+        try {
+            SpiderGame initial = SpiderGame.readBinary(in);
+            int[] steps = new int[SaveCodec.getCount(in, Math.min(MAX_STEPS, in.remaining()), "replay length")];
+            for (int i = 0; i < steps.length; i++) {
+                steps[i] = SaveCodec.getCount(in, MAX_STEP, "replay step");
+            }
+            if (in.hasRemaining()) {
+                throw new SaveCodec.CorruptSaveException("Unexpected trailing bytes in replay file");
+            }
+            initial.takeDirty();
+            return new Replay(initial, steps);
+        } catch (BufferUnderflowException e) {
+            throw new SaveCodec.CorruptSaveException("Replay file is truncated or malformed", e);
+        }
+    }
+
+    public static Replay read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > MAX_FILE_BYTES) {
+                throw new SaveCodec.CorruptSaveException("Replay file is too large: " + size + " bytes");
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // 读满为止
+            }
+            if (buffer.hasRemaining()) {
+                throw new SaveCodec.CorruptSaveException("Replay file is truncated");
+            }
+            return decode(buffer.array());
+        }
+    }
+
+    /**
+     * 写出回放文件；文件已存在时失败
+     */
+    public void write(Path file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(encode());
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+}
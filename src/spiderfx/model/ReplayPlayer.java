@@ -0,0 +1,94 @@
+package spiderfx.model;
+
+/**
+ * 回放播放器：前进、后退与跳转到任意一步
+ *
+ * 构造时把整局模拟一遍，记下每一步的 {@link GameChange}（后退时直接 undoChange，前进时 redoChange），
+ * 并每隔 {@link #CHECKPOINT_INTERVAL} 步保存一份局面拷贝；跳转时从最近的检查点恢复，
+ * 最多再重放 CHECKPOINT_INTERVAL - 1 步，与回放长度无关
+ *
+ * 播放器只修改自己的 {@link #getGame()}，界面按 {@link SpiderGame#takeDirty()} 刷新即可
+ */
+public final class ReplayPlayer {
+    static final int CHECKPOINT_INTERVAL = 32;
+
+    private final SpiderGame game;
+    private final int[] changes;
+    private final SpiderGame[] checkpoints; // checkpoints[k] 为第 k × CHECKPOINT_INTERVAL 步之前的局面
+    private int position; // 已执行的步数
+
+    /**
+     * @throws SaveCodec.CorruptSaveException 回放中某一步在对应局面下不合法
+     */
+    public ReplayPlayer(Replay replay) throws SaveCodec.CorruptSaveException {
+        SpiderGame simulation = replay.getInitial();
+        int length = replay.length();
+        changes = new int[length];
+        checkpoints = new SpiderGame[length / CHECKPOINT_INTERVAL + 1];
+        for (int i = 0; i < length; i++) {
+            if (i % CHECKPOINT_INTERVAL == 0) {
+                checkpoints[i / CHECKPOINT_INTERVAL] = simulation.copy();
+            }
+            int change = replay.apply(simulation, i);
+            if (change == GameChange.NONE) {
+                throw new SaveCodec.CorruptSaveException("Illegal move " + (i + 1) + " in replay");
+            }
+            changes[i] = change;
+        }
+        if (length % CHECKPOINT_INTERVAL == 0) {
+            checkpoints[length / CHECKPOINT_INTERVAL] = simulation.copy();
+        }
+        game = replay.getInitial();
+    }
+
+    public SpiderGame getGame() {
+        return game;
+    }
+
+    public int getPosition() {
+        return position;
+    }
+
+    public int length() {
+        return changes.length;
+    }
+
+    public boolean isAtEnd() {
+        return position == changes.length;
+    }
+
+    public boolean stepForward() {
+        if (position == changes.length) {
+            return false;
+        }
+        game.redoChange(changes[position++]);
+        return true;
+    }
+
+    public boolean stepBack() {
+        if (position == 0) {
+            return false;
+        }
+        game.undoChange(changes[--position]);
+        return true;
+    }
+
+    /**
+     * 跳到执行完 target 步之后的局面（超出范围时取最近的端点）
+     * 距离当前位置不超过一个检查点间隔时逐步前进或后退，否则从 target 之前最近的检查点恢复
+     */
+    public void seek(int target) {
+        target = Math.max(0, Math.min(target, changes.length));
+        if (Math.abs(target - position) >= CHECKPOINT_INTERVAL) {
+            int checkpoint = target / CHECKPOINT_INTERVAL;
+            game.restoreFrom(checkpoints[checkpoint]);
+            position = checkpoint * CHECKPOINT_INTERVAL;
+        }
+        while (position < target) {
+            game.redoChange(changes[position++]);
+        }
+        while (position > target) {
+            game.undoChange(changes[--position]);
+        }
+    }
+}
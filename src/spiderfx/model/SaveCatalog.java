@@ -0,0 +1,255 @@
+package spiderfx.model;
+
+import java.io.*;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 存档目录的索引（saves/catalog.idx）
+ * 每个存档在索引中有一条几十字节的摘要（标签、备注、时间、模式、分数、进度），
+ * 加载对话框只读索引，选中后才解码对应的存档文件
+ *
+ * 索引格式：magic "SPSC"(4) | 版本(4)，之后是只追加的条目（DataOutput 编码，同名以最后一条为准）
+ * 条目按存档文件的大小和修改时间校验；索引中缺失或过期的存档（例如旧版本留下的）
+ * 会在 {@link #load(Path)} 时读取一次并重写索引
+ * 无法解码的存档也记入索引（标记为损坏并带上原因），在列表中显示为“（已损坏）”，而不是直接从列表中消失
+ */
+public final class SaveCatalog {
+    public static final String CATALOG_FILE = "catalog.idx";
+    public static final String SAVE_SUFFIX = ".dat";
+    static final int MAGIC = 0x53505343; // "SPSC"
+    static final int VERSION = 2;
+
+    private SaveCatalog() {
+    }
+
+    /**
+     * 存档摘要
+     */
+    public static final class Entry {
+        private final String fileName;
+        private final String label;
+        private final String remark;
+        private final LocalDateTime saveTime;
+        private final SpiderGame.GameMode mode;
+        private final int score;
+        private final int completedSequences;
+        private final long dealSeed;
+        private final long fileSize;
+        private final long lastModified;
+        private final String corruption; // 存档无法解码时为原因，否则为 null
+
+        Entry(String fileName, String label, String remark, LocalDateTime saveTime, SpiderGame.GameMode mode,
+              int score, int completedSequences, long dealSeed, long fileSize, long lastModified, String corruption) {
+            this.fileName = fileName;
+            this.label = label;
+            this.remark = remark;
+            this.saveTime = saveTime;
+            this.mode = mode;
+            this.score = score;
+            this.completedSequences = completedSequences;
+            this.dealSeed = dealSeed;
+            this.fileSize = fileSize;
+            this.lastModified = lastModified;
+            this.corruption = corruption;
+        }
+
+        static Entry of(String fileName, SaveData data, BasicFileAttributes attributes) {
+            SpiderGame game = data.getGame();
+            return new Entry(fileName, data.getLabel(), data.getRemark(), data.getSaveTime(), game.getGameMode(),
+                    game.getScore(), game.getCompletedSequences(), data.getDealSeed(),
+                    attributes.size(), attributes.lastModifiedTime().toMillis(), null);
+        }
+
+        /**
+         * 无法解码的存档：没有摘要，保存时间取文件的修改时间
+         */
+        static Entry corrupt(String fileName, String reason, BasicFileAttributes attributes) {
+            LocalDateTime modified = LocalDateTime.ofInstant(attributes.lastModifiedTime().toInstant(), ZoneId.systemDefault());
+            return new Entry(fileName, fileName, "", modified, null, 0, 0, 0,
+                    attributes.size(), attributes.lastModifiedTime().toMillis(), reason == null ? "" : reason);
+        }
+
+        public String getFileName() { return fileName; }
+        public String getLabel() { return label; }
+        public String getRemark() { return remark; }
+        public LocalDateTime getSaveTime() { return saveTime; }
+        public SpiderGame.GameMode getMode() { return mode; }
+        public int getScore() { return score; }
+        public int getCompletedSequences() { return completedSequences; }
+        public long getDealSeed() { return dealSeed; }
+        public boolean isCorrupt() { return corruption != null; }
+        public String getCorruption() { return corruption; }
+
+        boolean matches(BasicFileAttributes attributes) {
+            return fileSize == attributes.size() && lastModified == attributes.lastModifiedTime().toMillis();
+        }
+
+        public String getFormattedSaveTime() {
+            return saveTime.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
+        }
+
+        @Override
+        public String toString() {
+            if (corruption != null) {
+                return String.format("[%s] %s（已损坏）", getFormattedSaveTime(), fileName);
+            }
+            return String.format("[%s] %s (%s)  %d 分  %d/%d 组", getFormattedSaveTime(), label, remark,
+                    score, completedSequences, SpiderGame.TOTAL_SEQUENCES);
+        }
+
+        void writeTo(DataOutput out) throws IOException {
+            out.writeUTF(fileName);
+            out.writeUTF(label);
+            out.writeUTF(remark);
+            out.writeLong(saveTime.toEpochSecond(ZoneOffset.UTC));
+            out.writeByte(mode == null ? -1 : mode.ordinal());
+            out.writeInt(score);
+            out.writeInt(completedSequences);
+            out.writeLong(dealSeed);
+            out.writeLong(fileSize);
+            out.writeLong(lastModified);
+            out.writeBoolean(corruption != null);
+            if (corruption != null) {
+                out.writeUTF(corruption);
+            }
+        }
+
+        static Entry readFrom(DataInput in) throws IOException {
+            String fileName = in.readUTF();
+            String label = in.readUTF();
+            String remark = in.readUTF();
+            LocalDateTime saveTime = LocalDateTime.ofEpochSecond(in.readLong(), 0, ZoneOffset.UTC);
+            int ordinal = in.readByte();
+            SpiderGame.GameMode[] modes = SpiderGame.GameMode.values();
+            if (ordinal < -1 || ordinal >= modes.length) {
+                throw new IOException("Bad mode in catalog: " + ordinal);
+            }
+            int score = in.readInt();
+            int completedSequences = in.readInt();
+            long dealSeed = in.readLong();
+            long fileSize = in.readLong();
+            long lastModified = in.readLong();
+            String corruption = in.readBoolean() ? in.readUTF() : null;
+            if ((ordinal == -1) != (corruption != null)) {
+                throw new IOException("Bad mode in catalog: " + ordinal);
+            }
+            return new Entry(fileName, label, remark, saveTime, ordinal == -1 ? null : modes[ordinal], score,
+                    completedSequences, dealSeed, fileSize, lastModified, corruption);
+        }
+    }
+
+    /**
+     * 读取存档目录的摘要列表，按保存时间从新到旧排列；无法解码的存档以损坏条目出现在列表中
+     */
+    public static List<Entry> load(Path dir) throws IOException {
+        Map<String, Entry> indexed = readIndex(dir.resolve(CATALOG_FILE));
+        List<Entry> entries = new ArrayList<>();
+        boolean stale = false;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*" + SAVE_SUFFIX)) {
+            for (Path file : stream) {
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                String name = file.getFileName().toString();
+                Entry entry = indexed.remove(name);
+                if (entry == null || !entry.matches(attributes)) {
+                    stale = true;
+                    entry = readEntry(file, attributes);
+                }
+                entries.add(entry);
+            }
+        }
+        if (stale || !indexed.isEmpty()) {
+            try {
+                rewrite(dir.resolve(CATALOG_FILE), entries);
+            } catch (IOException e) {
+                System.err.println("Failed to rewrite save catalog: " + e.getMessage());
+            }
+        }
+        entries.sort(Comparator.comparing(Entry::getSaveTime).reversed());
+        return entries;
+    }
+
+    /**
+     * 存档文件写完后追加它的摘要
+     */
+    public static void add(Path dir, String fileName, SaveData data) throws IOException {
+        Path file = dir.resolve(fileName);
+        Entry entry = Entry.of(fileName, data, Files.readAttributes(file, BasicFileAttributes.class));
+        Path index = dir.resolve(CATALOG_FILE);
+        boolean fresh = !Files.exists(index) || Files.size(index) == 0;
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(index,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)))) {
+            if (fresh) {
+                writeHeader(out);
+            }
+            entry.writeTo(out);
+        }
+    }
+
+    /**
+     * 读取选中的存档，见 {@link SaveCodec#read(Path)}
+     */
+    public static SaveData read(Path file) throws IOException {
+        return SaveCodec.read(file);
+    }
+
+    /**
+     * 解码存档生成摘要；存档损坏时返回损坏条目，读文件本身出错时抛出
+     */
+    private static Entry readEntry(Path file, BasicFileAttributes attributes) throws IOException {
+        String name = file.getFileName().toString();
+        try {
+            return Entry.of(name, read(file), attributes);
+        } catch (SaveCodec.CorruptSaveException | RuntimeException e) {
+            return Entry.corrupt(name, e.getMessage(), attributes);
+        }
+    }
+
+    private static Map<String, Entry> readIndex(Path index) {
+        Map<String, Entry> entries = new HashMap<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(index)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return entries;
+            }
+            while (true) {
+                Entry entry = Entry.readFrom(in);
+                entries.put(entry.getFileName(), entry);
+            }
+        } catch (EOFException | NoSuchFileException e) {
+            // 读到末尾（或写到一半的最后一条）
+        } catch (IOException e) {
+            System.err.println("Failed to read save catalog: " + e.getMessage());
+        }
+        return entries;
+    }
+
+    private static void rewrite(Path index, List<Entry> entries) throws IOException {
+        Path temp = index.resolveSibling(CATALOG_FILE + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            writeHeader(out);
+            for (Entry entry : entries) {
+                entry.writeTo(out);
+            }
+        }
+        Files.move(temp, index, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static void writeHeader(DataOutput out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+    }
+}
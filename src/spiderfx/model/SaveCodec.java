@@ -0,0 +1,225 @@
+package spiderfx.model;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.zip.CRC32;
+
+/**
+ * 存档的二进制编码，取代 Java 序列化
+ *
+ * 文件格式（版本 1）：
+ * magic "SPSV"(4) | 版本(1) | 正文 | CRC32(4，覆盖前面全部字节)
+ * 正文：标签、备注（varint 长度 + UTF-8）| 保存时间（varlong 秒）| 牌局（见 {@link SpiderGame#writeBinary}）
+ * 整数一律用 varint（有符号值先 zigzag），每张牌一个字节，一局存档通常只有一两百字节
+ *
+ * 读取时先校验 magic、版本和 CRC，再逐项校验取值范围，任何不一致都抛出 {@link CorruptSaveException}；
+ * 以 Java 序列化头开头的旧版存档仍按原方式读取
+ */
+public final class SaveCodec {
+    static final int MAGIC = 0x53505356; // "SPSV"
+    static final int VERSION = 1;
+    private static final int HEADER_BYTES = 5;
+    private static final int CRC_BYTES = 4;
+    private static final int MAX_TEXT_BYTES = 64 * 1024;
+    private static final int MAX_FILE_BYTES = 1 << 20;
+    private static final short SERIALIZATION_MAGIC = (short) 0xACED;
+
+    /**
+     * 存档损坏或格式不符
+     */
+    public static final class CorruptSaveException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        public CorruptSaveException(String message) {
+            super(message);
+        }
+
+        public CorruptSaveException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    private SaveCodec() {
+    }
+
+    public static byte[] encode(SaveData data) {
+        byte[] label = data.getLabel().getBytes(StandardCharsets.UTF_8);
+        byte[] remark = data.getRemark().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer out = ByteBuffer.allocate(512 + label.length + remark.length);
+        out.putInt(MAGIC).put((byte) VERSION);
+        putBytes(out, label);
+        putBytes(out, remark);
+        putVarlong(out, zigzag(data.getSaveTime().toEpochSecond(ZoneOffset.UTC)));
+        data.getGame().writeBinary(out);
+        CRC32 crc = new CRC32();
+        crc.update(out.array(), 0, out.position());
+        out.putInt((int) crc.getValue());
+        byte[] bytes = new byte[out.position()];
+        System.arraycopy(out.array(), 0, bytes, 0, bytes.length);
+        return bytes;
+    }
+
+    public static SaveData decode(byte[] bytes) throws IOException {
+        if (bytes.length >= 2 && ByteBuffer.wrap(bytes).getShort() == SERIALIZATION_MAGIC) {
+            return decodeLegacy(bytes);
+        }
+        if (bytes.length < HEADER_BYTES + CRC_BYTES) {
+            throw new CorruptSaveException("Save file is truncated (" + bytes.length + " bytes)");
+        }
+        ByteBuffer in = ByteBuffer.wrap(bytes, 0, bytes.length - CRC_BYTES);
+        if (in.getInt() != MAGIC) {
+            throw new CorruptSaveException("Not a save file");
+        }
+        int version = in.get();
+        if (version != VERSION) {
+            throw new CorruptSaveException("Unsupported save version " + version);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length - CRC_BYTES);
+        if ((int) crc.getValue() != ByteBuffer.wrap(bytes, bytes.length - CRC_BYTES, CRC_BYTES).getInt()) {
+            throw new CorruptSaveException("Save file checksum mismatch");
+        }
+        try {
+            String label = getString(in);
+            String remark = getString(in);
+            LocalDateTime saveTime = LocalDateTime.ofEpochSecond(unzigzag(getVarlong(in)), 0, ZoneOffset.UTC);
+            SpiderGame game = SpiderGame.readBinary(in);
+            if (in.hasRemaining()) {
+                throw new CorruptSaveException("Unexpected trailing bytes in save file");
+            }
+            return new SaveData(game, label, remark, saveTime);
+        } catch (BufferUnderflowException | java.time.DateTimeException e) {
+            throw new CorruptSaveException("Save file is truncated or malformed", e);
+        }
+    }
+
+    /**
+     * 通过 FileChannel 读取存档
+     */
+    public static SaveData read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > MAX_FILE_BYTES) {
+                throw new CorruptSaveException("Save file is too large: " + size + " bytes");
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // 读满为止
+            }
+            if (buffer.hasRemaining()) {
+                throw new CorruptSaveException("Save file is truncated");
+            }
+            return decode(buffer.array());
+        }
+    }
+
+    /**
+     * 通过 FileChannel 写出存档；文件已存在时失败
+     */
+    public static void write(Path file, SaveData data) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(encode(data));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    private static SaveData decodeLegacy(byte[] bytes) throws IOException {
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            Object obj = ois.readObject();
+            if (!(obj instanceof SaveData)) {
+                throw new CorruptSaveException("Not a save file");
+            }
+            return (SaveData) obj;
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new CorruptSaveException("Not a save file", e);
+        } catch (CorruptSaveException e) {
+            throw e;
+        } catch (IOException e) {
+            throw new CorruptSaveException("Legacy save file is corrupt: " + e.getMessage(), e);
+        }
+    }
+
+    // ---- varint 编码 ----
+
+    static void putVarint(ByteBuffer out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    static void putVarlong(ByteBuffer out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    static int getVarint(ByteBuffer in) throws CorruptSaveException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new CorruptSaveException("Malformed varint");
+    }
+
+    static long getVarlong(ByteBuffer in) throws CorruptSaveException {
+        long value = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new CorruptSaveException("Malformed varint");
+    }
+
+    static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * 读取一个 [0, max] 范围内的 varint，超出范围视为损坏
+     */
+    static int getCount(ByteBuffer in, int max, String what) throws CorruptSaveException {
+        int value = getVarint(in);
+        if (value < 0 || value > max) {
+            throw new CorruptSaveException("Invalid " + what + " in save file: " + value);
+        }
+        return value;
+    }
+
+    private static void putBytes(ByteBuffer out, byte[] bytes) {
+        putVarint(out, bytes.length);
+        out.put(bytes);
+    }
+
+    private static String getString(ByteBuffer in) throws CorruptSaveException {
+        int length = getCount(in, Math.min(MAX_TEXT_BYTES, in.remaining()), "text length");
+        String text = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return text;
+    }
+}
@@ -11,12 +11,25 @@ public class SaveData implements Serializable {
     private final String label;
     private final String remark;
     private final LocalDateTime saveTime;
+    private final long dealSeed; // 发牌种子，旧版存档中为 0
 
     public SaveData(SpiderGame game, String label, String remark) {
         this.game = game;
         this.label = label;
         this.remark = remark;
         this.saveTime = LocalDateTime.now();
+        this.dealSeed = game.getDealSeed();
+    }
+
+    /**
+     * 解码存档时使用，保留原来的保存时间
+     */
+    SaveData(SpiderGame game, String label, String remark, LocalDateTime saveTime) {
+        this.game = game;
+        this.label = label;
+        this.remark = remark;
+        this.saveTime = saveTime;
+        this.dealSeed = game.getDealSeed();
     }
 
     public SpiderGame getGame() {
@@ -31,6 +44,10 @@ public class SaveData implements Serializable {
         return remark;
     }
 
+    public long getDealSeed() {
+        return dealSeed;
+    }
+
     public LocalDateTime getSaveTime() {
         return saveTime;
     }
@@ -0,0 +1,128 @@
+package spiderfx.model;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 存档目录的异步读写
+ * 所有文件操作都在同一个后台线程上按提交顺序执行，因此并发的保存不会互相覆盖，
+ * 保存与读取索引也不会交错；调用方（FX 线程）拿到 {@link CompletableFuture} 后自行切回界面线程
+ *
+ * 传入的 {@link SaveData} 必须是调用时的快照（牌局用 {@link SpiderGame#copy()}），后台线程不会再访问界面正在修改的对象
+ */
+public final class SaveStore {
+    private static final long SHUTDOWN_WAIT_SECONDS = 5;
+
+    private final Path dir;
+    private final ExecutorService io;
+
+    public SaveStore(Path dir) {
+        this.dir = dir;
+        this.io = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "save-io");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * 写出一个新存档并登记到索引，完成时返回文件名
+     */
+    public CompletableFuture<String> save(SaveData data) {
+        return submit(() -> {
+            Files.createDirectories(dir);
+            long stamp = System.currentTimeMillis();
+            String fileName = "save_" + stamp + SaveCatalog.SAVE_SUFFIX;
+            while (Files.exists(dir.resolve(fileName))) { // 同一毫秒内连续保存
+                fileName = "save_" + (++stamp) + SaveCatalog.SAVE_SUFFIX;
+            }
+            SaveCodec.write(dir.resolve(fileName), data);
+            SaveCatalog.add(dir, fileName, data);
+            return fileName;
+        });
+    }
+
+    /**
+     * 读取存档索引，目录不存在时返回空列表
+     */
+    public CompletableFuture<List<SaveCatalog.Entry>> list() {
+        return submit(() -> Files.isDirectory(dir) ? SaveCatalog.load(dir) : List.of());
+    }
+
+    /**
+     * 解码选中的存档
+     */
+    public CompletableFuture<SaveData> load(SaveCatalog.Entry entry) {
+        return submit(() -> SaveCatalog.read(dir.resolve(entry.getFileName())));
+    }
+
+    /**
+     * 写出一个回放文件，完成时返回文件名
+     */
+    public CompletableFuture<String> saveReplay(Replay replay) {
+        return submit(() -> {
+            Files.createDirectories(dir);
+            long stamp = System.currentTimeMillis();
+            String fileName = "replay_" + stamp + Replay.REPLAY_SUFFIX;
+            while (Files.exists(dir.resolve(fileName))) {
+                fileName = "replay_" + (++stamp) + Replay.REPLAY_SUFFIX;
+            }
+            replay.write(dir.resolve(fileName));
+            return fileName;
+        });
+    }
+
+    /**
+     * 读取回放文件并完成模拟（建立检查点），返回可直接播放的播放器
+     */
+    public CompletableFuture<ReplayPlayer> loadReplay(Path file) {
+        return submit(() -> new ReplayPlayer(Replay.read(file)));
+    }
+
+    /**
+     * 等待已提交的操作完成后停止后台线程（退出时调用）
+     */
+    public void shutdown() {
+        io.shutdown();
+        try {
+            if (!io.awaitTermination(SHUTDOWN_WAIT_SECONDS, TimeUnit.SECONDS)) {
+                System.err.println("Save operations did not finish before exit");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 取出异步异常中真正的原因
+     */
+    public static Throwable cause(Throwable error) {
+        while ((error instanceof CompletionException || error instanceof UncheckedIOException)
+                && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+
+    private interface IoTask<T> {
+        T run() throws IOException;
+    }
+
+    private <T> CompletableFuture<T> submit(IoTask<T> task) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return task.run();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, io);
+    }
+}
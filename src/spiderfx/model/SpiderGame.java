@@ -1,15 +1,19 @@
 package spiderfx.model;
 // 导入输入输出流、集合框架相关类
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.RandomAccess;
 
 public class SpiderGame implements Serializable { // 声明类实现序列化接口
     private static final long serialVersionUID = 1L; // 定义序列化版本号
     public static final int COLUMN_COUNT = 10; // 定义列数常量（10列
     public static final int COMPLETE_SEQUENCE_LENGTH = 13; // 定义完成序列长度常量（13张牌）
+    public static final int TOTAL_SEQUENCES = 8; // 完成 8 组即胜利
+    public static final int MAX_MOVES = COLUMN_COUNT * (COLUMN_COUNT - 1) * COMPLETE_SEQUENCE_LENGTH + 1; // 单个局面合法走法数上限（含发牌）
 
     public enum GameMode { // 定义三种游戏难度：单花色、双花色、四花色
         SINGLE_SUIT,
@@ -17,49 +21,111 @@ public class SpiderGame implements Serializable { // 声明类实现序列化接
         FOUR_SUITS
     }
 
-    private List<List<Card>> columns;      // 10列纸牌
-    private List<Card> stock;              // 牌堆
+    private transient PackedBoard board;   // 紧凑牌面（10列、牌堆、完成区）
     private GameMode gameMode;             // 游戏模式
     private int completedSequences;        // 已完成序列数
-    private List<List<Card>> foundations;  // 基础牌堆
     private int score;                     // 得分
     private int moves;                     // 移动次数
     private int deals;                     // 发牌次数
     private long elapsedSeconds;           // 经过秒数
+    private long dealSeed;                 // 发牌种子，同一模式下同一种子得到相同牌局
+
+    private transient int lastChange = GameChange.NONE; // 最近一次移牌/发牌的变化编码
+    private transient int dirty = ChangeMask.ALL;       // 自上次 takeDirty 以来有变化的部分
+
+    private transient List<List<Card>> columnViews; // 各列的只读视图
+    private transient List<Card> stockView;          // 牌堆的只读视图
+    private transient List<List<Card>> foundationsView; // 完成区的只读视图
+
+    private static final SplitMix64 SEED_RANDOM = new SplitMix64(System.nanoTime() ^ System.currentTimeMillis());
+
+    /**
+     * 序列化字段保持与旧版（List&lt;Card&gt; 存储）一致，已有存档仍可读取
+     */
+    private static final ObjectStreamField[] serialPersistentFields = {
+            new ObjectStreamField("columns", List.class),
+            new ObjectStreamField("stock", List.class),
+            new ObjectStreamField("gameMode", GameMode.class),
+            new ObjectStreamField("completedSequences", int.class),
+            new ObjectStreamField("foundations", List.class),
+            new ObjectStreamField("score", int.class),
+            new ObjectStreamField("moves", int.class),
+            new ObjectStreamField("deals", int.class),
+            new ObjectStreamField("elapsedSeconds", long.class),
+            new ObjectStreamField("dealSeed", long.class)
+    };
 
     public SpiderGame(GameMode gameMode) {
+        this(gameMode, true);
+    }
+
+    /**
+     * 按指定种子发牌，同一模式与种子在任何机器上都得到完全相同的牌局
+     */
+    public SpiderGame(GameMode gameMode, long dealSeed) {
         this.gameMode = gameMode;
-        this.columns = new ArrayList<>();
-        for (int i = 0; i < COLUMN_COUNT; i++) {
-            columns.add(new ArrayList<>());
-        }
-        this.stock = new ArrayList<>();
-        this.foundations = new ArrayList<>();
-        newGame();
+        initBoard();
+        newGame(dealSeed);
     }
 
     public SpiderGame() {
         this(GameMode.SINGLE_SUIT);
     } // 默认构造函数，使用单花色模式
 
+    /**
+     * deal 为 false 时只建立空牌面，供解码存档时逐张放入
+     */
+    private SpiderGame(GameMode gameMode, boolean deal) {
+        this.gameMode = gameMode;
+        initBoard();
+        if (deal) {
+            newGame();
+        }
+    }
+
+    private void initBoard() {
+        this.board = new PackedBoard();
+        List<List<Card>> views = new ArrayList<>(COLUMN_COUNT);
+        for (int i = 0; i < COLUMN_COUNT; i++) {
+            views.add(new ColumnList(i));
+        }
+        this.columnViews = Collections.unmodifiableList(views);
+        this.stockView = new StockList();
+        this.foundationsView = new FoundationList();
+        this.lastChange = GameChange.NONE; // 反序列化时 transient 字段不会执行初始化表达式
+        this.dirty = ChangeMask.ALL;
+    }
+
+    /**
+     * 拷贝构造函数，直接复制紧凑牌面数组，不经过序列化
+     */
+    public SpiderGame(SpiderGame other) {
+        initBoard();
+        other.copyInto(this);
+    }
+
     /**
      * 深拷贝当前游戏状态
-     * 通过序列化/反序列化实现深拷贝
-     * 捕获并处理可能的异常
      */
     public SpiderGame copy() {
-        try {
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            ObjectOutputStream oos = new ObjectOutputStream(baos);
-            oos.writeObject(this);
-            
-            ByteArrayInputStream bais = new ByteArrayInputStream(baos.toByteArray());
-            ObjectInputStream ois = new ObjectInputStream(bais);
-            return (SpiderGame) ois.readObject();
-        } catch (IOException | ClassNotFoundException e) {
-            e.printStackTrace();
-            return null;
-        }
+        return new SpiderGame(this);
+    }
+
+    /**
+     * 把当前状态复制到 target 中，复用 target 已有的牌面数组，不产生新对象
+     * 适合撤销、提示、搜索等需要反复快照的场景
+     */
+    public void copyInto(SpiderGame target) {
+        target.board.copyFrom(board);
+        target.gameMode = gameMode;
+        target.completedSequences = completedSequences;
+        target.score = score;
+        target.moves = moves;
+        target.deals = deals;
+        target.elapsedSeconds = elapsedSeconds;
+        target.dealSeed = dealSeed;
+        target.lastChange = lastChange;
+        target.dirty = ChangeMask.ALL;
     }
 
     /**
@@ -67,81 +133,58 @@ public class SpiderGame implements Serializable { // 声明类实现序列化接
      * 将当前对象状态替换为另一个对象的状态
      */
     public void restoreFrom(SpiderGame other) {
-        this.columns = other.columns;
-        this.stock = other.stock;
-        this.gameMode = other.gameMode;
-        this.completedSequences = other.completedSequences;
-        this.foundations = other.foundations;
-        this.score = other.score;
-        this.moves = other.moves;
-        this.deals = other.deals;
-        this.elapsedSeconds = other.elapsedSeconds;
-    }
-
-        /**
-     * 根据游戏模式获取对应的花色列表
-     *
-     * @param mode 游戏模式，决定返回哪些花色
-     * @return 包含相应花色的列表
-     * @throws IllegalArgumentException 当传入未知的游戏模式时抛出异常
+        other.copyInto(this);
+    }
+
+    /**
+     * 随机选一个新种子开始新牌局
      */
-    private List<Card.Suit> getSuitsForMode(GameMode mode) {
-        switch (mode) {
-            case SINGLE_SUIT:
-                return Arrays.asList(Card.Suit.SPADE);
-            case TWO_SUITS:
-                return Arrays.asList(Card.Suit.SPADE, Card.Suit.HEART);
-            case FOUR_SUITS:
-                return Arrays.asList(Card.Suit.SPADE, Card.Suit.HEART, Card.Suit.DIAMOND, Card.Suit.CLUB);
-            default:
-                throw new IllegalArgumentException("Unknown game mode: " + mode);
+    public void newGame() {
+        long seed;
+        synchronized (SEED_RANDOM) {
+            seed = SEED_RANDOM.nextLong();
         }
+        newGame(seed);
     }
 
-
-    public void newGame() { // 清空所有现有数据，重置游戏统计
-        for (List<Card> column : columns) {
-            column.clear();
-        }
-        stock.clear();
+    public void newGame(long dealSeed) { // 清空所有现有数据，重置游戏统计
+        board.clear();
         completedSequences = 0;
-        foundations.clear();
         score = 0;
         moves = 0;
         deals = 0;
+        this.dealSeed = dealSeed;
+        dirty = ChangeMask.ALL;
 
-        List<Card> deck = new ArrayList<>();
-        List<Card.Suit> suits = getSuitsForMode(gameMode);
-        int copiesPerSuit = 8 / suits.size();
-        for (Card.Suit suit : suits) {
-            for (int copy = 0; copy < copiesPerSuit; copy++) {
-                for (int rank = 1; rank <= 13; rank++) {
-                    deck.add(new Card(suit, rank));
-                }
-            }
-        }
-        Collections.shuffle(deck); // 随机打乱牌组,洗牌算法
+        byte[] deck = new byte[PackedBoard.DECK_SIZE];
+        DealGenerator.shuffle(gameMode, dealSeed, deck); // 按种子洗牌
+        int n = deck.length;
 
         for (int col = 0; col < COLUMN_COUNT; col++) {
             int cardsInColumn = col < 4 ? 6 : 5; // 前4列放6张牌，后6列放5张牌
-            List<Card> column = columns.get(col);
             for (int j = 0; j < cardsInColumn; j++) {
-                Card card = deck.remove(deck.size() - 1);
-                column.add(card);
-            }
-            if (!column.isEmpty()) {
-                column.get(column.size() - 1).setFaceUp(true); // 每列最后一张牌翻开
+                board.push(col, deck[--n], false);
             }
+            board.flipTop(col); // 每列最后一张牌翻开
+        }
+        for (int i = 0; i < n; i++) {
+            board.pushStock(deck[i]); // 剩余牌放入牌堆
         }
-        stock.addAll(deck); // 剩余牌放入牌堆
+    }
+
+    /**
+     * 本局的发牌种子；从旧版存档恢复的牌局没有记录种子，返回 0
+     */
+    public long getDealSeed() {
+        return dealSeed;
     }
 
     public List<Card> getColumn(int index) {
-        return columns.get(index);
+        return columnViews.get(index);
     }
 
     public List<Card> getStock() {
-        return stock;
+        return stockView;
     }
 
     public int getCompletedSequences() {
@@ -149,55 +192,51 @@ public class SpiderGame implements Serializable { // 声明类实现序列化接
     }
 
     public List<List<Card>> getFoundations() {
-        return foundations;
+        return foundationsView;
     }
 
     public boolean isGameWon() {
-        return completedSequences == 8;
+        return completedSequences == TOTAL_SEQUENCES;
     }  // 胜利判断
 
     public boolean canDealRow() {
-        return stock.size() >= COLUMN_COUNT;
+        return board.stockSize >= COLUMN_COUNT;
     } // 判断是否可以发牌（牌堆至少有10张牌
 
     public boolean dealRow() { // 从牌堆顶取牌，翻开并放到每列顶部
         if (!canDealRow()) {
             return false;
         }
-        for (List<Card> column : columns) { // 更新统计数据
-            Card card = stock.remove(stock.size() - 1);
-            card.setFaceUp(true);
-            column.add(card);
+        for (int col = 0; col < COLUMN_COUNT; col++) { // 更新统计数据
+            board.push(col, board.popStock(), true);
         }
+        int scoreBefore = score;
         onDeal();
+        lastChange = GameChange.deal(scoreBefore - score);
+        dirty |= ChangeMask.ALL_COLUMNS | ChangeMask.STOCK | ChangeMask.SCORE;
         return true;
     }
 
 //     拖拽检查方法，检查从指定位置开始能否拖拽牌序列
 //条件：起始牌及后续牌都翻开，同花色，递减顺
+//牌面维护了每列顶部可拖动序列的起点，判断只需 O(1)
     public boolean canStartDrag(int columnIndex, int cardIndex) {
-        List<Card> column = columns.get(columnIndex);
-        if (cardIndex < 0 || cardIndex >= column.size()) {
-            return false;
-        }
-        Card start = column.get(cardIndex);
-        if (!start.isFaceUp()) {
-            return false;
-        }
-        for (int i = cardIndex; i < column.size() - 1; i++) {
-            Card current = column.get(i);
-            Card next = column.get(i + 1);
-            if (!next.isFaceUp()) {
-                return false;
-            }
-            if (current.getSuit() != next.getSuit()) {
-                return false;
-            }
-            if (current.getRank() != next.getRank() + 1) {
-                return false;
-            }
-        }
-        return true;
+        return cardIndex >= board.runStart(columnIndex) && cardIndex < board.length(columnIndex);
+    }
+
+    /**
+     * 某列底部背面朝下的牌数
+     */
+    public int getFaceDownCount(int columnIndex) {
+        return board.faceDownCount(columnIndex);
+    }
+
+    /**
+     * 某列顶部可拖动序列（同花色递减且已翻开）的起始下标
+     * 列为空或没有可拖动的牌时返回列长
+     */
+    public int getMovableRunStart(int columnIndex) {
+        return board.runStart(columnIndex);
     }
 // 放置检查方法，检查能否将牌移动到目标列
 //目标列为空或顶部牌比移动牌大1
@@ -208,15 +247,13 @@ public class SpiderGame implements Serializable { // 声明类实现序列化接
         if (!canStartDrag(fromColumn, startIndex)) {
             return false;
         }
-        List<Card> target = columns.get(toColumn);
-        List<Card> source = columns.get(fromColumn);
-        Card moving = source.get(startIndex);
-        if (target.isEmpty()) {
+        int targetLength = board.length(toColumn);
+        if (targetLength == 0) {
             return true;
         }
-        Card targetTop = target.get(target.size() - 1);
-        return targetTop.isFaceUp()
-                && targetTop.getRank() == moving.getRank() + 1;
+        int movingRank = PackedBoard.rankOf(board.card(fromColumn, startIndex));
+        return board.isFaceUp(toColumn, targetLength - 1)
+                && PackedBoard.rankOf(board.top(toColumn)) == movingRank + 1;
     }
 // 移动序列方法，执行牌序列移动
 //检查是否形成完整序列
@@ -225,59 +262,167 @@ public class SpiderGame implements Serializable { // 声明类实现序列化接
         if (!canDrop(fromColumn, startIndex, toColumn)) {
             return false;
         }
-        List<Card> source = columns.get(fromColumn);
-        List<Card> target = columns.get(toColumn);
-        List<Card> moving = new ArrayList<>(source.subList(startIndex, source.size()));
-        source.subList(startIndex, source.size()).clear();
-        target.addAll(moving);
-        if (!source.isEmpty()) {
-            Card last = source.get(source.size() - 1);
-            last.setFaceUp(true);
-        }
-        checkCompleteSequence(toColumn);
+        int count = board.length(fromColumn) - startIndex;
+        board.moveRun(fromColumn, startIndex, toColumn);
+        boolean flippedSource = board.flipTop(fromColumn);
+        int sequencesBefore = completedSequences;
+        int scoreBefore = score;
+        boolean flippedTarget = checkCompleteSequence(toColumn);
         onMove();
+        lastChange = GameChange.move(fromColumn, toColumn, count, flippedSource,
+                completedSequences != sequencesBefore, flippedTarget, score - scoreBefore);
+        dirty |= ChangeMask.column(fromColumn) | ChangeMask.column(toColumn) | ChangeMask.SCORE
+                | (completedSequences != sequencesBefore ? ChangeMask.FOUNDATIONS : 0);
         return true;
     }
 // 检查完整序列方法，检查列末尾是否形成完整序列（13张同花色递减牌）
-//如是，移除序列并增加分数
-    private void checkCompleteSequence(int columnIndex) {
-        List<Card> column = columns.get(columnIndex);
-        if (column.size() < COMPLETE_SEQUENCE_LENGTH) {
-            return;
-        }
-        int start = column.size() - COMPLETE_SEQUENCE_LENGTH;
-        Card first = column.get(start);
-        Card.Suit suit = first.getSuit();
-        int expectedRank = 13;
-        for (int i = start; i < column.size(); i++) {
-            Card card = column.get(i);
-            if (!card.isFaceUp()) {
-                return;
+//如是，移除序列并增加分数，返回移走序列后是否翻开了新的列顶牌
+    private boolean checkCompleteSequence(int columnIndex) {
+        if (!board.hasCompleteRunAtTop(columnIndex)) {
+            return false;
+        }
+        board.removeCompleteRun(columnIndex);
+        completedSequences++;
+        score += 100;
+        return board.flipTop(columnIndex);
+    }
+
+    /**
+     * 把当前局面的全部合法走法写入 buffer，不分配任何对象
+     * 走法按 {@link Move} 编码，可发牌时最后追加 {@link Move#DEAL}
+     *
+     * @param buffer 长度至少为 {@link #MAX_MOVES}
+     * @return 写入的走法数
+     */
+    public int generateMoves(int[] buffer) {
+        int count = 0;
+        for (int from = 0; from < COLUMN_COUNT; from++) {
+            int length = board.length(from);
+            int runStart = board.runStart(from);
+            if (runStart >= length) {
+                continue;
             }
-            if (card.getSuit() != suit) {
-                return;
+            int runStartRank = PackedBoard.rankOf(board.card(from, runStart));
+            for (int to = 0; to < COLUMN_COUNT; to++) {
+                if (to == from) {
+                    continue;
+                }
+                int targetLength = board.length(to);
+                if (targetLength == 0) {
+                    for (int start = runStart; start < length; start++) { // 空列可接收序列中任意一段
+                        buffer[count++] = Move.of(from, start, to);
+                    }
+                } else if (board.isFaceUp(to, targetLength - 1)) {
+                    // 序列点数逐张减一，需要的起点可直接算出
+                    int start = runStart + runStartRank - (PackedBoard.rankOf(board.top(to)) - 1);
+                    if (start >= runStart && start < length) {
+                        buffer[count++] = Move.of(from, start, to);
+                    }
+                }
             }
-            if (card.getRank() != expectedRank) {
-                return;
+        }
+        if (canDealRow()) {
+            buffer[count++] = Move.DEAL;
+        }
+        return count;
+    }
+
+    /**
+     * 当前局面的 64 位 Zobrist 哈希，覆盖各列牌面、背面牌数与牌堆深度
+     * 随每次移牌、发牌、翻牌和完成序列增量更新，读取为 O(1)，可作为置换表或缓存的键
+     */
+    public long positionHash() {
+        return board.hash;
+    }
+
+    /**
+     * 执行一个 {@link Move} 编码的走法
+     *
+     * @return 对应的 {@link GameChange} 编码，可交给 {@link #undoMove(int)}；走法不合法时返回 {@link GameChange#NONE}
+     */
+    public int applyMove(int move) {
+        boolean applied = Move.isDeal(move)
+                ? dealRow()
+                : moveSequence(Move.from(move), Move.startIndex(move), Move.to(move));
+        return applied ? lastChange : GameChange.NONE;
+    }
+
+    /**
+     * 撤销 {@link #applyMove(int)} 返回的变化
+     */
+    public void undoMove(int change) {
+        undoChange(change);
+    }
+
+    /**
+     * 最近一次成功的 moveSequence/dealRow 造成的变化，见 {@link GameChange}
+     */
+    public int getLastChange() {
+        return lastChange;
+    }
+
+    /**
+     * 按变化记录逆向还原，耗时与移动张数成正比
+     * 必须按记录产生的相反顺序调用
+     */
+    public void undoChange(int change) {
+        if (GameChange.isDeal(change)) {
+            for (int col = COLUMN_COUNT - 1; col >= 0; col--) {
+                board.pushStock(board.popTop(col));
+            }
+            deals--;
+            dirty |= ChangeMask.ALL_COLUMNS | ChangeMask.STOCK;
+        } else {
+            int from = GameChange.from(change);
+            int to = GameChange.to(change);
+            if (GameChange.flippedTarget(change)) {
+                board.unflipTop(to);
+            }
+            if (GameChange.completed(change)) {
+                board.restoreCompleteRun(to);
+                completedSequences--;
+            }
+            if (GameChange.flippedSource(change)) {
+                board.unflipTop(from);
             }
-            expectedRank--;
+            board.moveRun(to, board.length(to) - GameChange.count(change), from);
+            moves--;
+            dirty |= ChangeMask.column(from) | ChangeMask.column(to)
+                    | (GameChange.completed(change) ? ChangeMask.FOUNDATIONS : 0);
         }
-        List<Card> sequence = new ArrayList<>(column.subList(start, column.size()));
-        column.subList(start, column.size()).clear();
-        completedSequences++;
-        foundations.add(sequence);
-        if (!column.isEmpty()) {
-            column.get(column.size() - 1).setFaceUp(true);
+        score += GameChange.isDeal(change) ? GameChange.scoreDelta(change) : -GameChange.scoreDelta(change);
+        lastChange = GameChange.NONE;
+        dirty |= ChangeMask.SCORE;
+    }
+
+    /**
+     * 自上次调用以来界面需要刷新的部分（见 {@link ChangeMask}），调用后清零
+     * 新建、拷贝或读档得到的对象首次调用时返回 {@link ChangeMask#ALL}
+     */
+    public int takeDirty() {
+        int mask = dirty;
+        dirty = ChangeMask.NONE;
+        return mask;
+    }
+
+    /**
+     * 按变化记录重新执行一步（用于重做）
+     *
+     * @return 是否执行成功
+     */
+    public boolean redoChange(int change) {
+        if (GameChange.isDeal(change)) {
+            return dealRow();
         }
-        score += 100;
+        int from = GameChange.from(change);
+        return moveSequence(from, board.length(from) - GameChange.count(change), GameChange.to(change));
     }
 
     public List<Card> getMovableSequence(int columnIndex, int startIndex) {
-        List<Card> column = columns.get(columnIndex);
         if (!canStartDrag(columnIndex, startIndex)) {
             return new ArrayList<>();
         }
-        return new ArrayList<>(column.subList(startIndex, column.size()));
+        return new ArrayList<>(getColumn(columnIndex).subList(startIndex, board.length(columnIndex)));
     }
 
     public void onMove() {
@@ -312,4 +457,227 @@ public class SpiderGame implements Serializable { // 声明类实现序列化接
     public void setElapsedSeconds(long elapsedSeconds) {
         this.elapsedSeconds = elapsedSeconds;
     }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        ObjectOutputStream.PutField fields = out.putFields();
+        List<List<Card>> columns = new ArrayList<>(COLUMN_COUNT);
+        for (List<Card> column : columnViews) {
+            columns.add(new ArrayList<>(column));
+        }
+        List<List<Card>> foundations = new ArrayList<>();
+        for (List<Card> sequence : foundationsView) {
+            foundations.add(new ArrayList<>(sequence));
+        }
+        fields.put("columns", columns);
+        fields.put("stock", new ArrayList<>(stockView));
+        fields.put("gameMode", gameMode);
+        fields.put("completedSequences", completedSequences);
+        fields.put("foundations", foundations);
+        fields.put("score", score);
+        fields.put("moves", moves);
+        fields.put("deals", deals);
+        fields.put("elapsedSeconds", elapsedSeconds);
+        fields.put("dealSeed", dealSeed);
+        out.writeFields();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        initBoard();
+        gameMode = (GameMode) fields.get("gameMode", GameMode.SINGLE_SUIT);
+        completedSequences = fields.get("completedSequences", 0);
+        score = fields.get("score", 0);
+        moves = fields.get("moves", 0);
+        deals = fields.get("deals", 0);
+        elapsedSeconds = fields.get("elapsedSeconds", 0L);
+        dealSeed = fields.get("dealSeed", 0L);
+
+        List<List<Card>> columns = (List<List<Card>>) fields.get("columns", null);
+        if (columns == null || columns.size() != COLUMN_COUNT) {
+            throw new InvalidObjectException("Missing or malformed columns");
+        }
+        try {
+            for (int col = 0; col < COLUMN_COUNT; col++) {
+                for (Card card : columns.get(col)) {
+                    board.push(col, PackedBoard.pack(card.getSuit(), card.getRank()), card.isFaceUp());
+                }
+            }
+        } catch (IllegalStateException e) {
+            throw new InvalidObjectException(e.getMessage());
+        }
+        List<Card> stock = (List<Card>) fields.get("stock", null);
+        if (stock != null) {
+            for (Card card : stock) {
+                board.pushStock(PackedBoard.pack(card.getSuit(), card.getRank()));
+            }
+        }
+        List<List<Card>> foundations = (List<List<Card>>) fields.get("foundations", null);
+        if (foundations != null) {
+            for (List<Card> sequence : foundations) {
+                board.foundations[board.foundationCount++] = (byte) sequence.get(0).getSuit().ordinal();
+            }
+        }
+    }
+
+    /**
+     * 按 {@link SaveCodec} 的二进制格式写出牌局：
+     * 模式(1) | 完成组数、分数(zigzag)、步数、发牌次数、用时（varint）| 种子(8)
+     * | 每列：牌数、背面牌数（varint）+ 每张牌 1 字节 | 牌堆：张数 + 每张 1 字节 | 完成区：组数 + 每组花色 1 字节
+     */
+    void writeBinary(ByteBuffer out) {
+        out.put((byte) gameMode.ordinal());
+        SaveCodec.putVarint(out, completedSequences);
+        SaveCodec.putVarlong(out, SaveCodec.zigzag(score));
+        SaveCodec.putVarint(out, moves);
+        SaveCodec.putVarint(out, deals);
+        SaveCodec.putVarlong(out, elapsedSeconds);
+        out.putLong(dealSeed);
+        for (int col = 0; col < COLUMN_COUNT; col++) {
+            int length = board.length(col);
+            SaveCodec.putVarint(out, length);
+            SaveCodec.putVarint(out, board.faceDownCount(col));
+            out.put(board.cells, col * PackedBoard.CAPACITY, length);
+        }
+        SaveCodec.putVarint(out, board.stockSize);
+        out.put(board.stock, 0, board.stockSize);
+        SaveCodec.putVarint(out, board.foundationCount);
+        out.put(board.foundations, 0, board.foundationCount);
+    }
+
+    /**
+     * 读取 {@link #writeBinary} 写出的牌局，并校验各项计数和牌面编码：
+     * 非空列的顶牌必须翻开，每种牌的张数（含完成区）必须与模式的牌组一致
+     */
+    static SpiderGame readBinary(ByteBuffer in) throws SaveCodec.CorruptSaveException {
+        SpiderGame game = new SpiderGame(GameMode.SINGLE_SUIT, false);
+        int mode = in.get();
+        if (mode < 0 || mode >= GameMode.values().length) {
+            throw new SaveCodec.CorruptSaveException("Invalid game mode in save file: " + mode);
+        }
+        game.gameMode = GameMode.values()[mode];
+        game.completedSequences = SaveCodec.getCount(in, TOTAL_SEQUENCES, "completed sequences");
+        game.score = (int) SaveCodec.unzigzag(SaveCodec.getVarlong(in));
+        game.moves = SaveCodec.getCount(in, Integer.MAX_VALUE, "move count");
+        game.deals = SaveCodec.getCount(in, Integer.MAX_VALUE, "deal count");
+        game.elapsedSeconds = SaveCodec.getVarlong(in);
+        game.dealSeed = in.getLong();
+        PackedBoard board = game.board;
+        int[] cardCounts = new int[256]; // 按牌面编码计数
+        int cards = 0;
+        for (int col = 0; col < COLUMN_COUNT; col++) {
+            int length = SaveCodec.getCount(in, PackedBoard.CAPACITY, "column length");
+            int faceDown = SaveCodec.getCount(in, length, "face-down count");
+            if (length > 0 && faceDown == length) {
+                throw new SaveCodec.CorruptSaveException("Top card of column " + col + " is face down in save file");
+            }
+            for (int i = 0; i < length; i++) {
+                byte card = readCard(in);
+                cardCounts[card]++;
+                board.push(col, card, i >= faceDown);
+            }
+            cards += length;
+        }
+        int stockSize = SaveCodec.getCount(in, PackedBoard.STOCK_CAPACITY, "stock size");
+        for (int i = 0; i < stockSize; i++) {
+            byte card = readCard(in);
+            cardCounts[card]++;
+            board.pushStock(card);
+        }
+        int foundationCount = SaveCodec.getCount(in, PackedBoard.FOUNDATION_CAPACITY, "foundation count");
+        for (int i = 0; i < foundationCount; i++) {
+            int suit = in.get();
+            if (suit < 0 || suit >= Card.Suit.values().length) {
+                throw new SaveCodec.CorruptSaveException("Invalid foundation suit in save file: " + suit);
+            }
+            board.foundations[board.foundationCount++] = (byte) suit;
+            for (int rank = 1; rank <= COMPLETE_SEQUENCE_LENGTH; rank++) {
+                cardCounts[PackedBoard.pack(Card.Suit.values()[suit], rank)]++;
+            }
+        }
+        if (foundationCount != game.completedSequences
+                || cards + stockSize + foundationCount * COMPLETE_SEQUENCE_LENGTH != PackedBoard.DECK_SIZE) {
+            throw new SaveCodec.CorruptSaveException("Card counts in save file do not add up");
+        }
+        Card.Suit[] suits = DealGenerator.suitsFor(game.gameMode);
+        int copies = TOTAL_SEQUENCES / suits.length;
+        for (Card.Suit suit : suits) {
+            for (int rank = 1; rank <= COMPLETE_SEQUENCE_LENGTH; rank++) {
+                if (cardCounts[PackedBoard.pack(suit, rank)] != copies) {
+                    // 总数为 104 且模式内每种牌都恰好 copies 张时，不会再有模式以外的牌
+                    throw new SaveCodec.CorruptSaveException("Cards in save file do not match " + game.gameMode);
+                }
+            }
+        }
+        return game;
+    }
+
+    private static byte readCard(ByteBuffer in) throws SaveCodec.CorruptSaveException {
+        byte card = in.get();
+        int rank = PackedBoard.rankOf(card);
+        int suit = PackedBoard.suitOf(card);
+        if (rank < 1 || rank > COMPLETE_SEQUENCE_LENGTH || suit >= Card.Suit.values().length) {
+            throw new SaveCodec.CorruptSaveException("Invalid card in save file: " + card);
+        }
+        return card;
+    }
+
+    /**
+     * 某一列的只读视图，按需把 byte 编码映射为共享的 Card 实例
+     */
+    private final class ColumnList extends AbstractList<Card> implements RandomAccess {
+        private final int column;
+
+        ColumnList(int column) {
+            this.column = column;
+        }
+
+        @Override
+        public Card get(int index) {
+            if (index < 0 || index >= board.length(column)) {
+                throw new IndexOutOfBoundsException("Index: " + index);
+            }
+            return Card.of(board.card(column, index), board.isFaceUp(column, index));
+        }
+
+        @Override
+        public int size() {
+            return board.length(column);
+        }
+    }
+
+    private final class StockList extends AbstractList<Card> implements RandomAccess {
+        @Override
+        public Card get(int index) {
+            if (index < 0 || index >= board.stockSize) {
+                throw new IndexOutOfBoundsException("Index: " + index);
+            }
+            return Card.of(board.stock[index], false);
+        }
+
+        @Override
+        public int size() {
+            return board.stockSize;
+        }
+    }
+
+    private final class FoundationList extends AbstractList<List<Card>> implements RandomAccess {
+        @Override
+        public List<Card> get(int index) {
+            if (index < 0 || index >= board.foundationCount) {
+                throw new IndexOutOfBoundsException("Index: " + index);
+            }
+            Card.Suit suit = Card.Suit.values()[board.foundations[index]];
+            List<Card> sequence = new ArrayList<>(COMPLETE_SEQUENCE_LENGTH);
+            for (int rank = 13; rank >= 1; rank--) {
+                sequence.add(Card.of(PackedBoard.pack(suit, rank), true));
+            }
+            return Collections.unmodifiableList(sequence);
+        }
+
+        @Override
+        public int size() {
+            return board.foundationCount;
+        }
+    }
 }
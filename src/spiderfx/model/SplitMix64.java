@@ -0,0 +1,39 @@
+package spiderfx.model;
+
+/**
+ * SplitMix64 伪随机数生成器
+ * 算法固定、与 JDK 实现无关，同一种子在任何 JVM 上都产生相同序列，可用于复现牌局
+ */
+public final class SplitMix64 {
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private long state;
+
+    public SplitMix64(long seed) {
+        this.state = seed;
+    }
+
+    public long nextLong() {
+        state += GOLDEN_GAMMA;
+        return PackedBoard.mix64(state);
+    }
+
+    /**
+     * 返回 [0, bound) 内均匀分布的整数（Lemire 乘法取高位，带拒绝采样以消除偏差）
+     */
+    public int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("bound must be positive: " + bound);
+        }
+        long m = (nextLong() >>> 32) * bound;
+        long low = m & 0xFFFFFFFFL;
+        if (low < bound) {
+            long threshold = (0x100000000L - bound) % bound;
+            while (low < threshold) {
+                m = (nextLong() >>> 32) * bound;
+                low = m & 0xFFFFFFFFL;
+            }
+        }
+        return (int) (m >>> 32);
+    }
+}
@@ -0,0 +1,38 @@
+package spiderfx.model;
+
+/**
+ * 统计事件类型，对应统计日志（{@link StatsJournal}）中的一条记录
+ * code 写入磁盘，已发布的取值不能修改或复用
+ */
+public enum StatEvent {
+    GAME_STARTED(1),
+    MOVE(2),
+    SEQUENCE_COMPLETED(3),
+    WIN(4),
+    ACHIEVEMENT_UNLOCKED(5);
+
+    private static final StatEvent[] BY_CODE = new StatEvent[6];
+
+    static {
+        for (StatEvent event : values()) {
+            BY_CODE[event.code] = event;
+        }
+    }
+
+    private final int code;
+
+    StatEvent(int code) {
+        this.code = code;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    /**
+     * 按磁盘上的 code 查找事件类型，未知的 code 返回 null
+     */
+    public static StatEvent ofCode(int code) {
+        return code > 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+    }
+}
@@ -1,5 +1,7 @@
 package spiderfx.model;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.HashMap;
 import java.util.Map;
@@ -22,6 +24,9 @@ public class Statistics implements Serializable {
     // 已获得的成就ID列表
     private Map<String, Long> unlockedAchievements = new HashMap<>(); // ID -> 解锁时间戳
 
+    // 快照对应的统计日志代数，旧版本存档读出为 0
+    private long journalGeneration = 0;
+
     public Statistics() {
         for (SpiderGame.GameMode mode : SpiderGame.GameMode.values()) {
             bestScores.put(mode, 0);
@@ -32,41 +37,60 @@ public class Statistics implements Serializable {
 
     // Getters and Setters
     public int getTotalGamesPlayed() { return totalGamesPlayed; }
-    public void incrementGamesPlayed() { totalGamesPlayed++; }
+    public synchronized void incrementGamesPlayed() { totalGamesPlayed++; }
 
     public int getTotalWins() { return totalWins; }
-    public void incrementWins() { totalWins++; }
+    public synchronized void incrementWins() { totalWins++; }
 
     public long getTotalMoves() { return totalMoves; }
-    public void addMoves(int moves) { totalMoves += moves; }
+    public synchronized void addMoves(int moves) { totalMoves += moves; }
 
     public int getTotalSequences() { return totalSequences; }
-    public void addSequences(int count) { totalSequences += count; }
+    public synchronized void addSequences(int count) { totalSequences += count; }
 
     public int getBestScore(SpiderGame.GameMode mode) { return bestScores.getOrDefault(mode, 0); }
-    public void updateBestScore(SpiderGame.GameMode mode, int score) {
+    public synchronized void updateBestScore(SpiderGame.GameMode mode, int score) {
         if (score > getBestScore(mode)) {
             bestScores.put(mode, score);
         }
     }
 
     public long getFastestTime(SpiderGame.GameMode mode) { return fastestTimes.getOrDefault(mode, Long.MAX_VALUE); }
-    public void updateFastestTime(SpiderGame.GameMode mode, long seconds) {
+    public synchronized void updateFastestTime(SpiderGame.GameMode mode, long seconds) {
         if (seconds < getFastestTime(mode)) {
             fastestTimes.put(mode, seconds);
         }
     }
 
     public int getWinsByMode(SpiderGame.GameMode mode) { return winsByMode.getOrDefault(mode, 0); }
-    public void incrementWinsByMode(SpiderGame.GameMode mode) {
+    public synchronized void incrementWinsByMode(SpiderGame.GameMode mode) {
         winsByMode.put(mode, getWinsByMode(mode) + 1);
     }
 
-    public Map<String, Long> getUnlockedAchievements() { return unlockedAchievements; }
+    public synchronized Map<String, Long> getUnlockedAchievements() { return new HashMap<>(unlockedAchievements); }
     public boolean isAchievementUnlocked(String id) { return unlockedAchievements.containsKey(id); }
-    public void unlockAchievement(String id) {
-        if (!unlockedAchievements.containsKey(id)) {
-            unlockedAchievements.put(id, System.currentTimeMillis());
-        }
+    public synchronized void unlockAchievement(String id) {
+        unlockAchievement(id, System.currentTimeMillis());
+    }
+    public synchronized void unlockAchievement(String id, long timestamp) {
+        unlockedAchievements.putIfAbsent(id, timestamp);
+    }
+
+    /**
+     * 记录一场胜利：胜场、分模式胜场、最高分与最快时间
+     */
+    public synchronized void addWin(SpiderGame.GameMode mode, int score, long seconds) {
+        incrementWins();
+        incrementWinsByMode(mode);
+        updateBestScore(mode, score);
+        updateFastestTime(mode, seconds);
+    }
+
+    synchronized long getJournalGeneration() { return journalGeneration; }
+    synchronized void setJournalGeneration(long generation) { journalGeneration = generation; }
+
+    // 后台写线程序列化时持有同一把锁，得到一致的快照；修改方法因此都加了 synchronized
+    private synchronized void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
     }
 }
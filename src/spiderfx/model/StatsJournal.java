@@ -0,0 +1,217 @@
+package spiderfx.model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * 只追加的统计事件日志（stats.journal）
+ * 每次统计变化只在文件末尾追加一条几十字节的记录，不再整体重写 stats.dat；
+ * 日志定期由 {@link StatsManager} 合并进快照后清空
+ *
+ * 文件格式：
+ * 头部 13 字节：magic "SPJL"(4) | 版本(1) | 代数(8)
+ * 记录：长度 L(2) | 事件 code(1) + 负载(L-1) | CRC32(4)
+ *
+ * 代数与快照中的 {@link Statistics#getJournalGeneration()} 相同时，日志中的记录才属于该快照之后；
+ * 合并时先写入更高代数的快照再清空日志，两步之间崩溃也不会重复计数
+ * 末尾写到一半的记录通过长度和 CRC 识别，重放时丢弃并截断
+ */
+final class StatsJournal implements Closeable {
+    static final int MAGIC = 0x53504A4C; // "SPJL"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 13;
+    private static final int FRAME_OVERHEAD = 2 + 4;
+
+    private final FileChannel channel;
+    private long size;
+
+    private StatsJournal(FileChannel channel, long size) {
+        this.channel = channel;
+        this.size = size;
+    }
+
+    /**
+     * 打开日志文件；若其代数与快照一致，则把其中的记录重放到 stats 上，
+     * 否则（旧代数、不存在或头部损坏）清空并写入新的头部
+     */
+    static StatsJournal open(Path path, long generation, Statistics stats) throws IOException {
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long valid = replay(channel, generation, stats);
+            if (valid < 0) {
+                writeHeader(channel, generation);
+                valid = HEADER_BYTES;
+            } else if (valid < channel.size()) {
+                channel.truncate(valid); // 丢弃崩溃时写了一半的记录
+            }
+            channel.position(valid);
+            return new StatsJournal(channel, valid);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return 最后一条完整记录之后的位置；头部不匹配时返回 -1
+     */
+    private static long replay(FileChannel channel, long generation, Statistics stats) throws IOException {
+        long length = channel.size();
+        if (length < HEADER_BYTES || length > Integer.MAX_VALUE) {
+            return -1;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) length);
+        while (buffer.hasRemaining() && channel.read(buffer, buffer.position()) >= 0) {
+            // 读满为止
+        }
+        buffer.flip();
+        if (buffer.getInt() != MAGIC || buffer.get() != VERSION || buffer.getLong() != generation) {
+            return -1;
+        }
+        CRC32 crc = new CRC32();
+        while (buffer.remaining() >= FRAME_OVERHEAD + 1) {
+            int start = buffer.position();
+            int bodyLength = buffer.getShort() & 0xFFFF;
+            if (bodyLength == 0 || buffer.remaining() < bodyLength + 4) {
+                buffer.position(start);
+                break;
+            }
+            crc.reset();
+            crc.update(buffer.array(), start + 2, bodyLength);
+            int expected = buffer.getInt(start + 2 + bodyLength);
+            if ((int) crc.getValue() != expected) {
+                buffer.position(start);
+                break;
+            }
+            ByteBuffer body = ByteBuffer.wrap(buffer.array(), start + 2, bodyLength).slice();
+            if (!apply(body, stats)) {
+                buffer.position(start);
+                break;
+            }
+            buffer.position(start + 2 + bodyLength + 4);
+        }
+        return buffer.position();
+    }
+
+    /**
+     * 把一条记录作用到统计数据上，未知的事件返回 false
+     */
+    private static boolean apply(ByteBuffer body, Statistics stats) {
+        StatEvent event = StatEvent.ofCode(body.get());
+        if (event == null) {
+            return false;
+        }
+        switch (event) {
+            case GAME_STARTED:
+                stats.incrementGamesPlayed();
+                return true;
+            case MOVE:
+                stats.addMoves(body.getInt());
+                return true;
+            case SEQUENCE_COMPLETED:
+                stats.addSequences(body.getInt());
+                return true;
+            case WIN: {
+                int ordinal = body.get();
+                SpiderGame.GameMode[] modes = SpiderGame.GameMode.values();
+                if (ordinal < 0 || ordinal >= modes.length) {
+                    return false;
+                }
+                int score = body.getInt();
+                stats.addWin(modes[ordinal], score, body.getLong());
+                return true;
+            }
+            case ACHIEVEMENT_UNLOCKED: {
+                long time = body.getLong();
+                String id = new String(body.array(), body.arrayOffset() + body.position(), body.remaining(),
+                        StandardCharsets.UTF_8);
+                stats.unlockAchievement(id, time);
+                return true;
+            }
+            default:
+                return false;
+        }
+    }
+
+    // ---- 记录编码（在 FX 线程上调用，只分配一个小缓冲区） ----
+
+    static ByteBuffer gameStarted() {
+        return seal(begin(StatEvent.GAME_STARTED, 0));
+    }
+
+    static ByteBuffer count(StatEvent event, int count) {
+        return seal(begin(event, 4).putInt(count));
+    }
+
+    static ByteBuffer win(SpiderGame.GameMode mode, int score, long seconds) {
+        return seal(begin(StatEvent.WIN, 1 + 4 + 8).put((byte) mode.ordinal()).putInt(score).putLong(seconds));
+    }
+
+    static ByteBuffer achievement(String id, long time) {
+        byte[] bytes = id.getBytes(StandardCharsets.UTF_8);
+        return seal(begin(StatEvent.ACHIEVEMENT_UNLOCKED, 8 + bytes.length).putLong(time).put(bytes));
+    }
+
+    private static ByteBuffer begin(StatEvent event, int payloadBytes) {
+        ByteBuffer buffer = ByteBuffer.allocate(FRAME_OVERHEAD + 1 + payloadBytes);
+        buffer.putShort((short) (1 + payloadBytes));
+        buffer.put((byte) event.getCode());
+        return buffer;
+    }
+
+    private static ByteBuffer seal(ByteBuffer buffer) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 2, buffer.position() - 2);
+        buffer.putInt((int) crc.getValue());
+        buffer.flip();
+        return buffer;
+    }
+
+    // ---- 文件操作（只在后台写线程上调用） ----
+
+    void append(ByteBuffer record) throws IOException {
+        while (record.hasRemaining()) {
+            size += channel.write(record);
+        }
+    }
+
+    /**
+     * 快照写入成功后清空日志，开始新的代数
+     */
+    void reset(long generation) throws IOException {
+        writeHeader(channel, generation);
+        channel.position(HEADER_BYTES);
+        channel.force(false);
+        size = HEADER_BYTES;
+    }
+
+    void force() throws IOException {
+        channel.force(false);
+    }
+
+    long size() {
+        return size;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private static void writeHeader(FileChannel channel, long generation) throws IOException {
+        channel.truncate(0);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC).put((byte) VERSION).putLong(generation).flip();
+        long position = 0;
+        while (header.hasRemaining()) {
+            position += channel.write(header, position);
+        }
+    }
+}
@@ -1,61 +1,303 @@
 package spiderfx.model;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
+/**
+ * 统计数据的持久化
+ * stats.dat 是某一时刻的完整快照，之后的每次变化作为一条事件追加到 stats.journal（见 {@link StatsJournal}）；
+ * 启动时先读快照再重放日志，日志超过 {@link #COMPACT_THRESHOLD_BYTES} 或退出时合并为新快照
+ *
+ * record* 方法先修改内存中的统计，再把编码好的记录交给后台写线程追加，调用方（FX 线程）不会等待磁盘
+ */
 public class StatsManager {
     private static final String STATS_FILE = "stats.dat";
-    private static Statistics instance;
+    private static final String JOURNAL_FILE = "stats.journal";
+    private static final long COMPACT_THRESHOLD_BYTES = 64 * 1024; // 日志超过此大小时合并进快照
+    private static final long SHUTDOWN_WAIT_MILLIS = 5000;
+    private static volatile Statistics instance;
+    private static volatile ExecutorService writer;
+    private static volatile StatsJournal journal;
+    private static long journalBytes; // 自上次合并以来追加的字节数，只在持有类锁时访问
 
     public static Statistics getInstance() {
-        if (instance == null) {
-            loadStats();
+        Statistics stats = instance;
+        if (stats == null) {
+            synchronized (StatsManager.class) {
+                if (instance == null) {
+                    loadStats();
+                }
+                stats = instance;
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * 读取快照并重放日志尾部
+     */
+    public static synchronized void loadStats() {
+        flushNow();
+        closeJournal();
+        Statistics stats = readSnapshot();
+        try {
+            journal = StatsJournal.open(Paths.get(JOURNAL_FILE), stats.getJournalGeneration(), stats);
+            journalBytes = journal.size() - StatsJournal.HEADER_BYTES;
+        } catch (IOException e) {
+            System.err.println("Failed to open stats journal: " + e.getMessage());
+            journalBytes = 0;
         }
-        return instance;
+        instance = stats;
     }
 
-    public static void loadStats() {
+    private static Statistics readSnapshot() {
         Path path = Paths.get(STATS_FILE);
         if (Files.exists(path)) {
-            try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(STATS_FILE))) {
-                instance = (Statistics) ois.readObject();
+            try (ObjectInputStream ois = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+                return (Statistics) ois.readObject();
             } catch (Exception e) {
                 System.err.println("Failed to load stats: " + e.getMessage());
-                instance = new Statistics();
             }
-        } else {
-            instance = new Statistics();
         }
+        return new Statistics();
+    }
+
+    // 以下 record* 方法返回因该事件新解锁的成就名称，没有时返回空列表
+
+    public static synchronized List<String> recordGameStarted(SpiderGame game) {
+        getInstance().incrementGamesPlayed();
+        record(StatsJournal.gameStarted());
+        return unlockTriggered(StatEvent.GAME_STARTED, game);
     }
 
-    public static void saveStats() {
-        if (instance == null) return;
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(STATS_FILE))) {
-            oos.writeObject(instance);
+    public static synchronized List<String> recordMoves(SpiderGame game, int count) {
+        getInstance().addMoves(count);
+        record(StatsJournal.count(StatEvent.MOVE, count));
+        return unlockTriggered(StatEvent.MOVE, game);
+    }
+
+    public static synchronized List<String> recordSequences(SpiderGame game, int count) {
+        getInstance().addSequences(count);
+        record(StatsJournal.count(StatEvent.SEQUENCE_COMPLETED, count));
+        return unlockTriggered(StatEvent.SEQUENCE_COMPLETED, game);
+    }
+
+    public static synchronized List<String> recordWin(SpiderGame game) {
+        SpiderGame.GameMode mode = game.getGameMode();
+        int score = game.getScore();
+        long seconds = game.getElapsedSeconds();
+        getInstance().addWin(mode, score, seconds);
+        record(StatsJournal.win(mode, score, seconds));
+        return unlockTriggered(StatEvent.WIN, game);
+    }
+
+    /**
+     * 只检查依赖该事件的成就
+     */
+    private static List<String> unlockTriggered(StatEvent event, SpiderGame game) {
+        Statistics stats = instance;
+        List<String> newlyUnlocked = Collections.emptyList();
+        for (Achievement a : AchievementRegistry.triggeredBy(event)) {
+            if (!stats.isAchievementUnlocked(a.getId()) && a.isMet(stats, game)) {
+                recordAchievement(a.getId(), System.currentTimeMillis());
+                if (newlyUnlocked.isEmpty()) {
+                    newlyUnlocked = new ArrayList<>();
+                }
+                newlyUnlocked.add(a.getName());
+            }
+        }
+        return newlyUnlocked;
+    }
+
+    private static void recordAchievement(String id, long time) {
+        getInstance().unlockAchievement(id, time);
+        record(StatsJournal.achievement(id, time));
+    }
+
+    private static void record(ByteBuffer event) {
+        journalBytes += event.remaining(); // 先计数：提交后写线程会移动 event 的位置
+        StatsJournal target = journal;
+        if (target != null) {
+            submit(() -> {
+                try {
+                    target.append(event);
+                } catch (IOException e) {
+                    System.err.println("Failed to append stats event: " + e.getMessage());
+                }
+            });
+        }
+        if (journalBytes >= COMPACT_THRESHOLD_BYTES) {
+            saveStats();
+        }
+    }
+
+    /**
+     * 把当前统计合并为新快照并清空日志
+     * 快照在调用线程上序列化（不涉及磁盘），因此与之前已排队的追加、之后的追加都不会重叠或遗漏；
+     * 写盘在后台写线程上按顺序完成
+     */
+    public static synchronized void saveStats() {
+        Statistics stats = instance;
+        if (stats == null) return;
+        long generation = stats.getJournalGeneration() + 1;
+        byte[] snapshot;
+        try {
+            stats.setJournalGeneration(generation);
+            snapshot = serialize(stats);
         } catch (IOException e) {
             System.err.println("Failed to save stats: " + e.getMessage());
+            return;
+        }
+        journalBytes = 0;
+        StatsJournal target = journal;
+        submit(() -> {
+            try {
+                writeAtomically(snapshot);
+            } catch (IOException e) {
+                // 日志保持旧代数继续追加，与磁盘上的旧快照仍然一致
+                System.err.println("Failed to save stats: " + e.getMessage());
+                return;
+            }
+            if (target != null) {
+                try {
+                    target.reset(generation);
+                } catch (IOException e) {
+                    System.err.println("Failed to reset stats journal: " + e.getMessage());
+                }
+            }
+        });
+    }
+
+    /**
+     * 等待已排队的日志记录与快照写完并落盘
+     */
+    public static void flushNow() {
+        ExecutorService w = writer;
+        if (w == null || w.isShutdown()) {
+            return;
+        }
+        try {
+            w.submit(() -> {
+                StatsJournal target = journal;
+                if (target != null) {
+                    target.force();
+                }
+                return null;
+            }).get(SHUTDOWN_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            System.err.println("Failed to save stats: " + e.getCause());
+        } catch (RejectedExecutionException | TimeoutException e) {
+            System.err.println("Stats writer did not finish: " + e);
+        }
+    }
+
+    /**
+     * 合并日志、写出剩余记录并停止后台写线程
+     */
+    public static synchronized void shutdown() {
+        saveStats();
+        flushNow();
+        ExecutorService w = writer;
+        if (w != null) {
+            w.shutdown();
+        }
+        closeJournal();
+    }
+
+    private static void closeJournal() {
+        StatsJournal target = journal;
+        journal = null;
+        if (target != null) {
+            try {
+                target.close();
+            } catch (IOException e) {
+                System.err.println("Failed to close stats journal: " + e.getMessage());
+            }
+        }
+    }
+
+    private static void submit(Runnable task) {
+        try {
+            writer().execute(task);
+        } catch (RejectedExecutionException e) {
+            task.run(); // 写线程已停止（退出过程中），直接在调用线程上写
         }
     }
 
-    public static List<String> checkAchievements(SpiderGame game) {
+    private static synchronized ExecutorService writer() {
+        if (writer == null) {
+            writer = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "stats-writer");
+                t.setDaemon(true);
+                return t;
+            });
+            // 非正常退出（如 System.exit）时也尽量写完已排队的记录
+            Runtime.getRuntime().addShutdownHook(new Thread(StatsManager::flushNow, "stats-flush"));
+        }
+        return writer;
+    }
+
+    private static byte[] serialize(Statistics stats) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(4096);
+        try (ObjectOutputStream oos = new ObjectOutputStream(buffer)) {
+            oos.writeObject(stats); // 序列化期间持有 stats 的锁，得到一致快照
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * 先完整写入临时文件并落盘再原子替换，写到一半崩溃也不会损坏原有的 stats.dat
+     */
+    private static void writeAtomically(byte[] snapshot) throws IOException {
+        Path target = Paths.get(STATS_FILE).toAbsolutePath();
+        Path temp = target.resolveSibling(STATS_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(snapshot);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * 检查全部尚未解锁的成就（例如新版本增加了成就、旧统计已满足条件时）
+     */
+    public static synchronized List<String> checkAchievements(SpiderGame game) {
         List<String> newlyUnlocked = new ArrayList<>();
         List<Achievement> all = Achievement.getAllAchievements();
         Statistics stats = getInstance();
 
         for (Achievement a : all) {
             if (!stats.isAchievementUnlocked(a.getId()) && a.isMet(stats, game)) {
-                stats.unlockAchievement(a.getId());
+                recordAchievement(a.getId(), System.currentTimeMillis());
                 newlyUnlocked.add(a.getName());
             }
         }
-
-        if (!newlyUnlocked.isEmpty()) {
-            saveStats();
-        }
         return newlyUnlocked;
     }
 }
@@ -0,0 +1,62 @@
+package spiderfx.model;
+
+import java.util.Arrays;
+
+/**
+ * 撤销/重做日志
+ * 每一步只保存一个 {@link GameChange} 编码（4 字节），历史长度不设上限
+ * cursor 之前的记录可撤销，cursor 之后的记录可重做；记录新操作会丢弃可重做部分
+ */
+public class UndoLog {
+    private int[] entries = new int[64];
+    private int size;   // 有效记录数（含可重做部分）
+    private int cursor; // 下一条记录的位置
+
+    public void record(int change) {
+        if (cursor == entries.length) {
+            entries = Arrays.copyOf(entries, entries.length * 2);
+        }
+        entries[cursor++] = change;
+        size = cursor;
+    }
+
+    public boolean canUndo() {
+        return cursor > 0;
+    }
+
+    public boolean canRedo() {
+        return cursor < size;
+    }
+
+    /**
+     * 回退一条记录并返回它，调用方需交给 {@link SpiderGame#undoChange(int)}
+     */
+    public int undo() {
+        if (!canUndo()) {
+            throw new IllegalStateException("Nothing to undo");
+        }
+        return entries[--cursor];
+    }
+
+    /**
+     * 前进一条记录并返回它，调用方需交给 {@link SpiderGame#redoChange(int)}
+     */
+    public int redo() {
+        if (!canRedo()) {
+            throw new IllegalStateException("Nothing to redo");
+        }
+        return entries[cursor++];
+    }
+
+    /**
+     * 当前局面之前的全部记录（不含可重做部分），按发生顺序排列
+     */
+    public int[] history() {
+        return Arrays.copyOf(entries, cursor);
+    }
+
+    public void clear() {
+        size = 0;
+        cursor = 0;
+    }
+}
@@ -0,0 +1,56 @@
+package spiderfx.sim;
+
+import spiderfx.model.GameArchive;
+import spiderfx.model.SpiderGame;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * 按条件扫描逐局归档（见 {@link GameArchive}），输出匹配局数与平均分数、用时、走法数，
+ * 以及实际解压和按块摘要跳过的块数（命令行，不加载任何 JavaFX 类）
+ *
+ * 用法：java -cp out spiderfx.sim.ArchiveQuery [归档文件] [模式|ALL] [won|all] [最长用时秒数]
+ * 例如四花色 600 秒内的胜局：java -cp out spiderfx.sim.ArchiveQuery games.archive FOUR_SUITS won 600
+ */
+public class ArchiveQuery {
+    public static void main(String[] args) throws IOException {
+        String file = args.length > 0 ? args[0] : GameArchive.ARCHIVE_FILE;
+        GameArchive.Query query = GameArchive.Query.all();
+        if (args.length > 1 && !args[1].equalsIgnoreCase("ALL")) {
+            query = query.mode(SpiderGame.GameMode.valueOf(args[1].toUpperCase()));
+        }
+        if (args.length > 2 && args[2].equalsIgnoreCase("won")) {
+            query = query.wonOnly();
+        }
+        if (args.length > 3) {
+            query = query.maxSeconds(Integer.parseInt(args[3]));
+        }
+
+        long start = System.nanoTime();
+        long games = 0;
+        long wins = 0;
+        long totalScore = 0;
+        long totalSeconds = 0;
+        long totalSteps = 0;
+        try (GameArchive.Reader reader = GameArchive.read(Paths.get(file), query)) {
+            while (reader.next()) {
+                games++;
+                if (reader.won()) {
+                    wins++;
+                }
+                totalScore += reader.score();
+                totalSeconds += reader.seconds();
+                totalSteps += reader.stepCount();
+            }
+            double elapsedMillis = (System.nanoTime() - start) / 1e6;
+            System.out.printf("%d 局（胜 %d）", games, wins);
+            if (games > 0) {
+                System.out.printf("  平均分数 %.1f  平均用时 %.1f 秒  平均走法 %.1f",
+                        (double) totalScore / games, (double) totalSeconds / games, (double) totalSteps / games);
+            }
+            System.out.printf("%n解压 %d 块，跳过 %d 块，耗时 %.1f ms%n",
+                    reader.getBlocksRead(), reader.getBlocksSkipped(), elapsedMillis);
+        }
+    }
+}
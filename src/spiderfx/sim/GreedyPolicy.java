@@ -0,0 +1,81 @@
+package spiderfx.sim;
+
+import spiderfx.model.GameChange;
+import spiderfx.model.Move;
+import spiderfx.model.SpiderGame;
+
+/**
+ * 贪心策略：逐个试走一步，选评价最高且本局未出现过的局面；
+ * 没有新局面可走，或连续多步评价没有提高时发牌，牌堆也发完则放弃
+ */
+public class GreedyPolicy implements Policy {
+    private static final int STALL_LIMIT = 40; // 评价连续多少步没有提高就视为停滞
+
+    private final LongHashSet visited = new LongHashSet(1 << 12);
+    private int bestSeen;
+    private int stalled;
+
+    @Override
+    public void reset(SpiderGame game) {
+        visited.clear();
+        visited.add(game.positionHash());
+        bestSeen = evaluate(game);
+        stalled = 0;
+    }
+
+    @Override
+    public int choose(SpiderGame game, int[] moves, int count) {
+        int best = -1;
+        int bestValue = Integer.MIN_VALUE;
+        int deal = -1;
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            if (Move.isDeal(move)) {
+                deal = move;
+                continue;
+            }
+            int change = game.applyMove(move);
+            if (change == GameChange.NONE) {
+                continue;
+            }
+            if (!visited.contains(game.positionHash())) {
+                int value = evaluate(game);
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = move;
+                }
+            }
+            game.undoMove(change);
+        }
+        if (best >= 0 && bestValue > bestSeen) {
+            bestSeen = bestValue;
+            stalled = 0;
+        } else if (++stalled > STALL_LIMIT || best < 0) {
+            best = deal;
+            stalled = 0;
+        }
+        if (best >= 0) {
+            int change = game.applyMove(best); // 记下将要到达的局面
+            visited.add(game.positionHash());
+            game.undoMove(change);
+        }
+        return best;
+    }
+
+    /**
+     * 完成的序列、翻开的牌、空列与顶部同花色序列的长度越多越好
+     */
+    static int evaluate(SpiderGame game) {
+        int value = game.getCompletedSequences() * 1000;
+        for (int col = 0; col < SpiderGame.COLUMN_COUNT; col++) {
+            int length = game.getColumn(col).size();
+            if (length == 0) {
+                value += 40;
+                continue;
+            }
+            value -= game.getFaceDownCount(col) * 20;
+            value += (length - game.getMovableRunStart(col)) * 3;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,61 @@
+package spiderfx.sim;
+
+import java.util.Arrays;
+
+/**
+ * 开放寻址的 long 集合，专用于记录局面哈希，避免装箱
+ * 0 作为空槽标记，哈希恰好为 0 的局面会被视为不存在（概率可忽略）
+ */
+final class LongHashSet {
+    private long[] slots;
+    private int size;
+
+    LongHashSet(int capacity) {
+        slots = new long[Integer.highestOneBit(Math.max(capacity, 16) - 1) << 1];
+    }
+
+    boolean contains(long key) {
+        int mask = slots.length - 1;
+        for (int i = (int) (key ^ (key >>> 32)) & mask; slots[i] != 0; i = (i + 1) & mask) {
+            if (slots[i] == key) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    void add(long key) {
+        if (key == 0) {
+            return;
+        }
+        if ((size + 1) * 2 > slots.length) {
+            grow();
+        }
+        int mask = slots.length - 1;
+        int i = (int) (key ^ (key >>> 32)) & mask;
+        while (slots[i] != 0) {
+            if (slots[i] == key) {
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        slots[i] = key;
+        size++;
+    }
+
+    void clear() {
+        Arrays.fill(slots, 0L);
+        size = 0;
+    }
+
+    private void grow() {
+        long[] old = slots;
+        slots = new long[old.length * 2];
+        size = 0;
+        for (long key : old) {
+            if (key != 0) {
+                add(key);
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package spiderfx.sim;
+
+import spiderfx.model.SpiderGame;
+
+/**
+ * 自动对局策略
+ * 每个工作线程持有自己的实例，因此实现可以保存按局的状态而无需同步
+ */
+public interface Policy {
+    /**
+     * 从合法走法中选出一步
+     *
+     * @param game  当前局面；可以临时 applyMove/undoMove 试探，但返回前必须还原
+     * @param moves {@link SpiderGame#generateMoves(int[])} 产生的走法
+     * @param count 走法数量，至少为 1
+     * @return 要执行的走法，或 -1 表示放弃本局
+     */
+    int choose(SpiderGame game, int[] moves, int count);
+
+    /**
+     * 开始新的一局前调用
+     */
+    default void reset(SpiderGame game) {
+    }
+}
@@ -0,0 +1,22 @@
+package spiderfx.sim;
+
+import spiderfx.model.SpiderGame;
+import spiderfx.model.SplitMix64;
+
+/**
+ * 随机策略：在全部合法走法（包括发牌）中均匀随机选择，作为其他策略的基线
+ * 随机数由牌局种子派生，同一局结果可复现
+ */
+public class RandomPolicy implements Policy {
+    private SplitMix64 random = new SplitMix64(0);
+
+    @Override
+    public void reset(SpiderGame game) {
+        random = new SplitMix64(~game.getDealSeed());
+    }
+
+    @Override
+    public int choose(SpiderGame game, int[] moves, int count) {
+        return moves[random.nextInt(count)];
+    }
+}
@@ -0,0 +1,116 @@
+package spiderfx.sim;
+
+import spiderfx.model.SpiderGame;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * 逐局写出模拟结果，写入即落盘缓冲，不在内存中累积
+ * 多个工作线程共用一个实例，write 方法内部同步
+ */
+public abstract class ResultSink implements Closeable {
+    /**
+     * 按扩展名选择格式：.bin 为二进制，其余为 CSV
+     */
+    public static ResultSink open(Path path) throws IOException {
+        if (path.getFileName().toString().endsWith(".bin")) {
+            return new Binary(Files.newOutputStream(path));
+        }
+        return new Csv(Files.newBufferedWriter(path, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 丢弃所有结果，只统计汇总
+     */
+    public static ResultSink discard() {
+        return new ResultSink() {
+            @Override
+            public void write(long seed, SpiderGame game, int steps) {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    /**
+     * @param steps 策略实际执行的步数（包括发牌）
+     */
+    public abstract void write(long seed, SpiderGame game, int steps) throws IOException;
+
+    /**
+     * CSV：mode,seed,won,moves,deals,completed,score,steps
+     */
+    private static final class Csv extends ResultSink {
+        private final Writer out;
+
+        Csv(BufferedWriter out) throws IOException {
+            this.out = out;
+            out.write("mode,seed,won,moves,deals,completed,score,steps\n");
+        }
+
+        @Override
+        public synchronized void write(long seed, SpiderGame game, int steps) throws IOException {
+            out.write(game.getGameMode().name());
+            out.write(',');
+            out.write(Long.toString(seed));
+            out.write(game.isGameWon() ? ",1," : ",0,");
+            out.write(Integer.toString(game.getMoves()));
+            out.write(',');
+            out.write(Integer.toString(game.getDeals()));
+            out.write(',');
+            out.write(Integer.toString(game.getCompletedSequences()));
+            out.write(',');
+            out.write(Integer.toString(game.getScore()));
+            out.write(',');
+            out.write(Integer.toString(steps));
+            out.write('\n');
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            out.close();
+        }
+    }
+
+    /**
+     * 二进制：文件头 "SPSM" + 版本号 1，之后每局 20 字节定长记录
+     * mode(1) seed(8) won(1) moves(2) deals(1) completed(1) score(4) steps(2)
+     */
+    private static final class Binary extends ResultSink {
+        private final DataOutputStream out;
+
+        Binary(OutputStream out) throws IOException {
+            this.out = new DataOutputStream(new BufferedOutputStream(out, 1 << 16));
+            this.out.writeInt(0x5350534D);
+            this.out.writeByte(1);
+        }
+
+        @Override
+        public synchronized void write(long seed, SpiderGame game, int steps) throws IOException {
+            out.writeByte(game.getGameMode().ordinal());
+            out.writeLong(seed);
+            out.writeByte(game.isGameWon() ? 1 : 0);
+            out.writeShort(game.getMoves());
+            out.writeByte(game.getDeals());
+            out.writeByte(game.getCompletedSequences());
+            out.writeInt(game.getScore());
+            out.writeShort(steps);
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package spiderfx.sim;
+
+import spiderfx.model.DealGenerator;
+import spiderfx.model.GameChange;
+import spiderfx.model.SpiderGame;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 无界面批量模拟（命令行，不加载任何 JavaFX 类）
+ * 对每种模式用同一主种子派生的 N 个牌局，由自动策略在线程池中对弈，
+ * 直接调用 {@link SpiderGame} 的规则；逐局结果流式写入文件，最后输出胜率、平均步数、
+ * 平均发牌次数与每秒局数
+ *
+ * 用法：java -cp out spiderfx.sim.SimulationRunner [模式列表|ALL] [每模式局数] [线程数] [策略] [输出文件|-] [主种子]
+ * 策略：random | greedy | solver:节点预算
+ * 例如：java -cp out spiderfx.sim.SimulationRunner ALL 100000 8 greedy results.csv 1
+ */
+public class SimulationRunner {
+    private static final int MAX_STEPS = 5000; // 单局最多执行的走法数，防止策略兜圈子
+
+    private final int threads;
+    private final Supplier<Policy> policyFactory;
+
+    public SimulationRunner(int threads, Supplier<Policy> policyFactory) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be positive: " + threads);
+        }
+        this.threads = threads;
+        this.policyFactory = policyFactory;
+    }
+
+    /**
+     * 汇总结果
+     */
+    public static final class Summary {
+        private final SpiderGame.GameMode mode;
+        private final long games;
+        private final long wins;
+        private final long totalMoves;
+        private final long totalDeals;
+        private final long elapsedNanos;
+
+        Summary(SpiderGame.GameMode mode, long games, long wins, long totalMoves, long totalDeals, long elapsedNanos) {
+            this.mode = mode;
+            this.games = games;
+            this.wins = wins;
+            this.totalMoves = totalMoves;
+            this.totalDeals = totalDeals;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public double getWinRate() {
+            return games == 0 ? 0 : (double) wins / games;
+        }
+
+        public double getAverageMoves() {
+            return games == 0 ? 0 : (double) totalMoves / games;
+        }
+
+        public double getAverageDeals() {
+            return games == 0 ? 0 : (double) totalDeals / games;
+        }
+
+        public double getGamesPerSecond() {
+            return elapsedNanos == 0 ? 0 : games / (elapsedNanos / 1e9);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-11s games=%d wins=%d winRate=%.2f%% avgMoves=%.1f avgDeals=%.2f rate=%.0f games/s",
+                    mode, games, wins, getWinRate() * 100, getAverageMoves(), getAverageDeals(), getGamesPerSecond());
+        }
+    }
+
+    /**
+     * 在线程池中跑完 seeds 对应的全部牌局，结果逐局写入 sink
+     */
+    public Summary run(SpiderGame.GameMode mode, long[] seeds, ResultSink sink) throws IOException {
+        AtomicInteger nextIndex = new AtomicInteger();
+        LongAdder wins = new LongAdder();
+        LongAdder totalMoves = new LongAdder();
+        LongAdder totalDeals = new LongAdder();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        long begin = System.nanoTime();
+        try {
+            List<Future<?>> workers = new ArrayList<>(threads);
+            for (int t = 0; t < threads; t++) {
+                workers.add(pool.submit(() -> {
+                    SpiderGame game = new SpiderGame(mode, 0L); // 每个线程复用一个对象
+                    Policy policy = policyFactory.get();
+                    int[] moves = new int[SpiderGame.MAX_MOVES];
+                    for (int i = nextIndex.getAndIncrement(); i < seeds.length; i = nextIndex.getAndIncrement()) {
+                        game.newGame(seeds[i]);
+                        int steps = play(game, policy, moves);
+                        if (game.isGameWon()) {
+                            wins.increment();
+                        }
+                        totalMoves.add(game.getMoves());
+                        totalDeals.add(game.getDeals());
+                        try {
+                            sink.write(seeds[i], game, steps);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Simulation interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            }
+            throw new IllegalStateException("Simulation worker failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        return new Summary(mode, seeds.length, wins.sum(), totalMoves.sum(), totalDeals.sum(), System.nanoTime() - begin);
+    }
+
+    /**
+     * 让策略下完一局，返回执行的步数
+     */
+    static int play(SpiderGame game, Policy policy, int[] moves) {
+        policy.reset(game);
+        int steps = 0;
+        while (!game.isGameWon() && steps < MAX_STEPS) {
+            int count = game.generateMoves(moves);
+            if (count == 0) {
+                break;
+            }
+            int move = policy.choose(game, moves, count);
+            if (move < 0 || game.applyMove(move) == GameChange.NONE) {
+                break;
+            }
+            steps++;
+        }
+        return steps;
+    }
+
+    static Supplier<Policy> parsePolicy(String name) {
+        if (name.equals("random")) {
+            return RandomPolicy::new;
+        }
+        if (name.equals("greedy")) {
+            return GreedyPolicy::new;
+        }
+        if (name.startsWith("solver")) {
+            long nodes = name.contains(":") ? Long.parseLong(name.substring(name.indexOf(':') + 1)) : 200_000L;
+            return () -> new SolverPolicy(nodes);
+        }
+        throw new IllegalArgumentException("Unknown policy: " + name);
+    }
+
+    public static void main(String[] args) throws IOException {
+        String modeList = args.length > 0 ? args[0] : "ALL";
+        int games = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        String policyName = args.length > 3 ? args[3] : "greedy";
+        String output = args.length > 4 ? args[4] : "-";
+        long masterSeed = args.length > 5 ? Long.parseLong(args[5]) : 1L;
+
+        List<SpiderGame.GameMode> modes = new ArrayList<>();
+        if (modeList.equals("ALL")) {
+            modes.addAll(List.of(SpiderGame.GameMode.values()));
+        } else {
+            for (String token : modeList.split(",")) {
+                modes.add(SpiderGame.GameMode.valueOf(token.trim()));
+            }
+        }
+
+        SimulationRunner runner = new SimulationRunner(threads, parsePolicy(policyName));
+        System.out.printf("policy=%s games/mode=%d threads=%d seed=%d%n", policyName, games, threads, masterSeed);
+        try (ResultSink sink = output.equals("-") ? ResultSink.discard() : ResultSink.open(Paths.get(output))) {
+            for (SpiderGame.GameMode mode : modes) {
+                long[] seeds = DealGenerator.seeds(masterSeed ^ mode.ordinal(), games);
+                System.out.println(runner.run(mode, seeds, sink));
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package spiderfx.sim;
+
+import spiderfx.model.SpiderGame;
+import spiderfx.solver.SolverResult;
+import spiderfx.solver.SpiderSolver;
+
+/**
+ * 求解器策略：每局开始时用 {@link SpiderSolver} 搜索一次，然后照着得到的路线走
+ * 求解失败时按搜索中评价最高的路线走完后放弃
+ */
+public class SolverPolicy implements Policy {
+    private final SpiderSolver solver;
+    private int[] line = new int[0];
+    private int next;
+
+    public SolverPolicy(long maxNodes) {
+        this.solver = new SpiderSolver(maxNodes, Long.MAX_VALUE / 2_000_000L);
+    }
+
+    @Override
+    public void reset(SpiderGame game) {
+        SolverResult result = solver.solve(game);
+        line = result.getMoves();
+        next = 0;
+    }
+
+    @Override
+    public int choose(SpiderGame game, int[] moves, int count) {
+        return next < line.length ? line[next++] : -1;
+    }
+}
@@ -0,0 +1,69 @@
+package spiderfx.solver;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 多线程共享的定长置换表，无锁
+ * 每项是一个 long：高 48 位为哈希的高位，低 16 位为剩余深度，
+ * 读写都是单个 long 的原子操作，不会读到“半个”条目；并发写入同一项时后写者覆盖，
+ * 最坏只是丢掉一条记录，导致某个局面被重复搜索，不影响结果正确性
+ */
+public class ConcurrentTranspositionTable implements PositionTable {
+    private static final long DEPTH_MASK = 0xFFFFL;
+
+    private final AtomicLongArray entries;
+    private final int mask;
+
+    /**
+     * @param bits 表大小为 2^bits 项（每项 8 字节）
+     */
+    public ConcurrentTranspositionTable(int bits) {
+        if (bits < 1 || bits > 28) {
+            throw new IllegalArgumentException("bits out of range: " + bits);
+        }
+        entries = new AtomicLongArray(1 << bits);
+        mask = (1 << bits) - 2; // 桶起点为偶数下标
+    }
+
+    private static long tag(long hash) {
+        long tag = hash & ~DEPTH_MASK;
+        return tag == 0 ? 1L << 16 : tag;
+    }
+
+    private int slot(long hash) {
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    @Override
+    public boolean probe(long hash, int remaining) {
+        long tag = tag(hash);
+        int slot = slot(hash);
+        long a = entries.getOpaque(slot);
+        long b = entries.getOpaque(slot + 1);
+        return ((a & ~DEPTH_MASK) == tag && (a & DEPTH_MASK) >= remaining)
+                || ((b & ~DEPTH_MASK) == tag && (b & DEPTH_MASK) >= remaining);
+    }
+
+    @Override
+    public void store(long hash, int remaining) {
+        long tag = tag(hash);
+        int slot = slot(hash);
+        long a = entries.getOpaque(slot);
+        long b = entries.getOpaque(slot + 1);
+        long current = a;
+        if ((a & ~DEPTH_MASK) != tag && ((b & ~DEPTH_MASK) == tag || (b & DEPTH_MASK) < (a & DEPTH_MASK))) {
+            slot++;
+            current = b;
+        }
+        if ((current & ~DEPTH_MASK) != tag || (current & DEPTH_MASK) < remaining) {
+            entries.setOpaque(slot, tag | remaining);
+        }
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < entries.length(); i++) {
+            entries.setOpaque(i, 0L);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package spiderfx.solver;
+
+import spiderfx.model.GameChange;
+import spiderfx.model.Move;
+import spiderfx.model.SpiderGame;
+
+import java.util.Arrays;
+
+/**
+ * 从某个局面出发的深度优先最佳优先搜索（单线程）
+ * 每个局面的子走法按 {@link MoveOrdering} 排序后依次尝试，局面经共享置换表去重；
+ * 显式维护走法栈而不是递归，以支持上千步的深度，搜索循环中不分配对象
+ *
+ * 多线程求解时，可通过 {@link Splitter} 把遇到的发牌分支交给其他线程
+ */
+final class DepthFirstSearch {
+    /**
+     * 分支拆分回调
+     */
+    interface Splitter {
+        /**
+         * 当前是否有空闲线程值得拆出新任务
+         */
+        boolean wantsWork();
+
+        /**
+         * 把 position（已执行完 line 的局面，归调用方所有）作为独立任务搜索
+         */
+        void split(SpiderGame position, int[] line);
+    }
+
+    private final SpiderGame game;
+    private final SearchContext context;
+    private final int[] prefix;
+    private final Splitter splitter;
+
+    /**
+     * @param game     起始局面，搜索会原地修改它
+     * @param prefix   从求解起点到 game 的走法，用于拼出完整路线
+     * @param splitter 可为 null，表示不拆分
+     */
+    DepthFirstSearch(SpiderGame game, SearchContext context, int[] prefix, Splitter splitter) {
+        this.game = game;
+        this.context = context;
+        this.prefix = prefix;
+        this.splitter = splitter;
+    }
+
+    void run() {
+        int maxDepth = context.maxDepth - prefix.length;
+        if (maxDepth <= 0) {
+            context.markDepthLimited();
+            return;
+        }
+        PositionTable table = context.table;
+        int[] buffer = new int[SpiderGame.MAX_MOVES];
+        int[] scores = new int[SpiderGame.MAX_MOVES];
+        int[] levelEnd = new int[maxDepth];   // 每层走法在 stack 中的结束位置
+        int[] cursor = new int[maxDepth];     // 每层下一个待试走法的位置
+        int[] path = new int[maxDepth];       // 当前路线上已执行的走法
+        int[] changes = new int[maxDepth];    // 对应的撤销记录
+        int[] stack = new int[4096];
+        long batch = 0;
+
+        int count = MoveOrdering.order(game, buffer, game.generateMoves(buffer), scores);
+        System.arraycopy(buffer, 0, stack, 0, count);
+        levelEnd[0] = count;
+        int depth = 0;
+        while (depth >= 0) {
+            if (cursor[depth] == levelEnd[depth]) {
+                depth--;
+                if (depth >= 0) {
+                    game.undoMove(changes[depth]);
+                }
+                continue;
+            }
+            int move = stack[cursor[depth]++];
+            int change = game.applyMove(move);
+            if (change == GameChange.NONE) {
+                continue;
+            }
+            batch++;
+            path[depth] = move;
+            changes[depth] = change;
+            if (game.isGameWon()) {
+                context.solved(SearchContext.concat(prefix, path, depth + 1));
+                break;
+            }
+            int remaining = maxDepth - depth - 1;
+            if (remaining == 0) {
+                context.markDepthLimited();
+                game.undoMove(change);
+                continue;
+            }
+            long hash = game.positionHash();
+            if (table.probe(hash, remaining)) {
+                game.undoMove(change);
+                continue;
+            }
+            table.store(hash, remaining);
+            context.offerBest(MoveOrdering.evaluate(game), prefix, path, depth + 1);
+            if (batch >= SearchContext.NODE_BATCH) {
+                boolean stop = context.addNodes(batch);
+                batch = 0;
+                if (stop) {
+                    break;
+                }
+            }
+            if (splitter != null && Move.isDeal(move) && splitter.wantsWork()) {
+                splitter.split(game.copy(), SearchContext.concat(prefix, path, depth + 1));
+                game.undoMove(change);
+                continue;
+            }
+
+            depth++;
+            int offset = levelEnd[depth - 1];
+            count = MoveOrdering.order(game, buffer, game.generateMoves(buffer), scores);
+            if (offset + count > stack.length) {
+                stack = Arrays.copyOf(stack, Math.max(stack.length * 2, offset + count));
+            }
+            System.arraycopy(buffer, 0, stack, offset, count);
+            cursor[depth] = offset;
+            levelEnd[depth] = offset + count;
+        }
+        context.addNodes(batch);
+    }
+}
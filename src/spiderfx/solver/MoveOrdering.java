@@ -0,0 +1,133 @@
+package spiderfx.solver;
+
+import spiderfx.model.Card;
+import spiderfx.model.Move;
+import spiderfx.model.SpiderGame;
+
+import java.util.List;
+
+/**
+ * 搜索用的走法裁剪、排序与局面评价
+ */
+final class MoveOrdering {
+    static final int PRUNED = Integer.MIN_VALUE;
+
+    private MoveOrdering() {
+    }
+
+    /**
+     * 去掉无意义的走法并按启发分从高到低排序，结果就地写回 moves
+     *
+     * @param scores 长度不小于 count 的临时数组
+     * @return 保留下来的走法数
+     */
+    static int order(SpiderGame game, int[] moves, int count, int[] scores) {
+        int firstEmpty = -1;
+        for (int col = 0; col < SpiderGame.COLUMN_COUNT; col++) {
+            if (game.getColumn(col).isEmpty()) {
+                firstEmpty = col;
+                break;
+            }
+        }
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            int score = score(game, move, firstEmpty);
+            if (score == PRUNED) {
+                continue;
+            }
+            // 插入排序：合法走法通常只有几十个
+            int j = kept++;
+            while (j > 0 && scores[j - 1] < score) {
+                moves[j] = moves[j - 1];
+                scores[j] = scores[j - 1];
+                j--;
+            }
+            moves[j] = move;
+            scores[j] = score;
+        }
+        return kept;
+    }
+
+    private static int score(SpiderGame game, int move, int firstEmpty) {
+        if (Move.isDeal(move)) {
+            return -1000; // 发牌会压住所有列，放到最后
+        }
+        int from = Move.from(move);
+        int start = Move.startIndex(move);
+        int to = Move.to(move);
+        List<Card> source = game.getColumn(from);
+        List<Card> target = game.getColumn(to);
+        int faceDown = game.getFaceDownCount(from);
+        boolean split = start > game.getMovableRunStart(from);
+        boolean revealsCard = start == faceDown && faceDown > 0;
+        Card moving = source.get(start);
+
+        if (target.isEmpty()) {
+            if (start == 0 || to != firstEmpty) {
+                return PRUNED; // 整列搬到空列毫无意义；多个空列彼此等价，只试第一个
+            }
+            int score = -100;
+            if (revealsCard) score += 160;
+            if (split) score -= 50;
+            return score;
+        }
+        Card top = target.get(target.size() - 1);
+        if (split) {
+            // 拆开同花色序列接到别处通常只是平移；但拆下的一段若能在目标列补成 K 到 A 的整组，就是新局面
+            return completesSequence(source, start, target) ? 500 : PRUNED;
+        }
+        int score = 0;
+        if (top.getSuit() == moving.getSuit()) {
+            score += 100 + source.size() - start;
+        }
+        if (revealsCard) {
+            score += 60;
+        } else if (start == 0) {
+            score += 80;
+        } else {
+            Card below = source.get(start - 1);
+            if (below.isFaceUp() && below.getRank() == moving.getRank() + 1) {
+                score -= 20; // 已经接在一张合适的牌上，只是换个位置
+            }
+        }
+        return score;
+    }
+
+    /**
+     * 把 source 从 start 起的同花色序列接到 target 后，target 末尾是否形成 K 到 A 的完整序列
+     * （调用方保证这是合法走法，即 target 顶牌比移动的牌大一）
+     */
+    private static boolean completesSequence(List<Card> source, int start, List<Card> target) {
+        if (source.get(source.size() - 1).getRank() != 1) {
+            return false; // 移动的序列要一直到 A
+        }
+        Card.Suit suit = source.get(start).getSuit();
+        int rank = source.get(start).getRank();
+        for (int i = target.size() - 1; i >= 0; i--) {
+            Card card = target.get(i);
+            if (!card.isFaceUp() || card.getSuit() != suit || card.getRank() != rank + 1) {
+                return false;
+            }
+            rank++;
+            if (rank == SpiderGame.COMPLETE_SEQUENCE_LENGTH) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 局面评价：完成的序列越多、背面牌越少、空列越多越好
+     */
+    static int evaluate(SpiderGame game) {
+        int value = game.getCompletedSequences() * 200;
+        for (int col = 0; col < SpiderGame.COLUMN_COUNT; col++) {
+            value -= game.getFaceDownCount(col) * 5;
+            if (game.getColumn(col).isEmpty()) {
+                value += 10;
+            }
+        }
+        return value;
+    }
+}
@@ -0,0 +1,142 @@
+package spiderfx.solver;
+
+import spiderfx.model.GameChange;
+import spiderfx.model.SpiderGame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 多线程求解器
+ * 在 {@link ForkJoinPool} 上把根附近的走法拆成独立任务，每个任务在自己的局面拷贝上做
+ * 与 {@link SpiderSolver} 相同的深度优先搜索；搜索途中遇到发牌分支且有线程空闲时，
+ * 再把该分支拆成新任务交给其他线程窃取
+ * 所有线程共享一张无锁置换表，任一线程找到胜利路线后其余线程在下一批节点内停止
+ */
+public class ParallelSpiderSolver {
+    private static final int ROOT_SPLIT_DEPTH = 2;   // 根附近按走法拆分的层数
+    private static final int MAX_SURPLUS_TASKS = 2;  // 本线程积压任务少于此数时才拆分发牌分支
+
+    private final int threads;
+    private final long maxNodes;
+    private final long timeLimitMillis;
+    private final int maxDepth;
+    private final int tableBits;
+
+    public ParallelSpiderSolver(int threads, long maxNodes, long timeLimitMillis) {
+        this(threads, maxNodes, timeLimitMillis, SpiderSolver.DEFAULT_MAX_DEPTH, SpiderSolver.DEFAULT_TABLE_BITS + 2);
+    }
+
+    public ParallelSpiderSolver(int threads, long maxNodes, long timeLimitMillis, int maxDepth, int tableBits) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be positive: " + threads);
+        }
+        this.threads = threads;
+        this.maxNodes = maxNodes;
+        this.timeLimitMillis = timeLimitMillis;
+        this.maxDepth = maxDepth;
+        this.tableBits = tableBits;
+    }
+
+    /**
+     * 求解给定局面，不会修改传入的游戏对象
+     */
+    public SolverResult solve(SpiderGame start) {
+        PositionTable table = new ConcurrentTranspositionTable(tableBits);
+        SearchContext context = new SearchContext(table, maxDepth, maxNodes, timeLimitMillis);
+        SpiderGame game = start.copy();
+        if (game.isGameWon()) {
+            context.solved(new int[0]);
+            return context.toResult();
+        }
+        table.store(game.positionHash(), maxDepth);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            pool.invoke(new SearchTask(context, game, new int[0], ROOT_SPLIT_DEPTH));
+        } finally {
+            pool.shutdownNow();
+        }
+        return context.toResult();
+    }
+
+    private static final class SearchTask extends RecursiveAction implements DepthFirstSearch.Splitter {
+        private static final long serialVersionUID = 1L;
+
+        private final SearchContext context;
+        private final SpiderGame game;
+        private final int[] prefix;
+        private final int splitDepth;
+        private final List<SearchTask> forked = new ArrayList<>();
+
+        SearchTask(SearchContext context, SpiderGame game, int[] prefix, int splitDepth) {
+            this.context = context;
+            this.game = game;
+            this.prefix = prefix;
+            this.splitDepth = splitDepth;
+        }
+
+        @Override
+        protected void compute() {
+            if (context.isStopped()) {
+                return;
+            }
+            if (splitDepth > 0) {
+                splitMoves();
+                return;
+            }
+            new DepthFirstSearch(game, context, prefix, this).run();
+            for (SearchTask task : forked) {
+                task.join();
+            }
+        }
+
+        /**
+         * 按排序后的走法把当前局面拆成子任务，全部交给线程池
+         */
+        private void splitMoves() {
+            int[] moves = new int[SpiderGame.MAX_MOVES];
+            int count = MoveOrdering.order(game, moves, game.generateMoves(moves), new int[SpiderGame.MAX_MOVES]);
+            List<SearchTask> children = new ArrayList<>(count);
+            int[] path = new int[1];
+            for (int i = 0; i < count; i++) {
+                SpiderGame child = game.copy();
+                if (child.applyMove(moves[i]) == GameChange.NONE) {
+                    continue;
+                }
+                path[0] = moves[i];
+                int[] line = SearchContext.concat(prefix, path, 1);
+                if (child.isGameWon()) {
+                    context.solved(line);
+                    return;
+                }
+                int remaining = context.maxDepth - line.length;
+                if (remaining <= 0) {
+                    context.markDepthLimited();
+                    continue;
+                }
+                if (context.table.probe(child.positionHash(), remaining)) {
+                    continue;
+                }
+                context.table.store(child.positionHash(), remaining);
+                context.offerBest(MoveOrdering.evaluate(child), prefix, path, 1);
+                children.add(new SearchTask(context, child, line, splitDepth - 1));
+            }
+            context.addNodes(children.size());
+            invokeAll(children);
+        }
+
+        @Override
+        public boolean wantsWork() {
+            return getSurplusQueuedTaskCount() < MAX_SURPLUS_TASKS;
+        }
+
+        @Override
+        public void split(SpiderGame position, int[] line) {
+            SearchTask task = new SearchTask(context, position, line, 0);
+            task.fork();
+            forked.add(task);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package spiderfx.solver;
+
+/**
+ * 搜索用的局面去重表：记录每个局面已经以多少剩余深度搜索过
+ */
+public interface PositionTable {
+    /**
+     * 局面是否已经以不少于 remaining 的剩余深度搜索过
+     */
+    boolean probe(long hash, int remaining);
+
+    void store(long hash, int remaining);
+
+    void clear();
+}
@@ -0,0 +1,98 @@
+package spiderfx.solver;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 一次求解中所有搜索线程共享的状态：置换表、预算、停止标志、胜利路线和最佳路线
+ * 单线程求解时同样使用，原子操作只在每批节点结束时发生一次
+ */
+final class SearchContext {
+    static final int NODE_BATCH = 1024; // 每批节点累计一次全局计数并检查预算
+
+    final PositionTable table;
+    final int maxDepth;
+    private final long maxNodes;
+    private final long startNanos = System.nanoTime();
+    private final long deadline;
+
+    private final AtomicLong nodes = new AtomicLong();
+    private final AtomicBoolean stopped = new AtomicBoolean();
+    private final AtomicBoolean budgetExhausted = new AtomicBoolean();
+    private final AtomicBoolean depthLimited = new AtomicBoolean();
+    private volatile int[] solution;
+    private volatile int bestValue = Integer.MIN_VALUE;
+    private int[] bestLine = new int[0];
+
+    SearchContext(PositionTable table, int maxDepth, long maxNodes, long timeLimitMillis) {
+        this.table = table;
+        this.maxDepth = maxDepth;
+        this.maxNodes = maxNodes;
+        this.deadline = startNanos + timeLimitMillis * 1_000_000L;
+    }
+
+    boolean isStopped() {
+        return stopped.get();
+    }
+
+    /**
+     * 累加节点数并检查节点与时间预算
+     *
+     * @return 是否应当停止搜索
+     */
+    boolean addNodes(long count) {
+        long total = nodes.addAndGet(count);
+        if (total >= maxNodes || System.nanoTime() > deadline) {
+            budgetExhausted.set(true);
+            stopped.set(true);
+        }
+        return stopped.get();
+    }
+
+    void markDepthLimited() {
+        depthLimited.set(true);
+    }
+
+    /**
+     * 记录胜利路线并通知所有线程尽快停止；只保留最先找到的一条
+     */
+    synchronized void solved(int[] line) {
+        if (solution == null) {
+            solution = line;
+        }
+        stopped.set(true);
+    }
+
+    /**
+     * 若 value 优于已知最佳局面，则记录 prefix + path[0..length) 作为最佳路线
+     */
+    void offerBest(int value, int[] prefix, int[] path, int length) {
+        if (value <= bestValue) {
+            return;
+        }
+        synchronized (this) {
+            if (value > bestValue) {
+                bestValue = value;
+                bestLine = concat(prefix, path, length);
+            }
+        }
+    }
+
+    static int[] concat(int[] prefix, int[] path, int length) {
+        int[] line = Arrays.copyOf(prefix, prefix.length + length);
+        System.arraycopy(path, 0, line, prefix.length, length);
+        return line;
+    }
+
+    synchronized SolverResult toResult() {
+        long elapsed = (System.nanoTime() - startNanos) / 1_000_000L;
+        if (solution != null) {
+            return new SolverResult(SolverResult.Status.SOLVED, solution, nodes.get(), elapsed);
+        }
+        SolverResult.Status status = budgetExhausted.get() || depthLimited.get()
+                ? SolverResult.Status.BUDGET_EXHAUSTED
+                : SolverResult.Status.UNSOLVABLE;
+        return new SolverResult(status, bestLine, nodes.get(), elapsed);
+    }
+}
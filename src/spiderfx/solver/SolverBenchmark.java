@@ -0,0 +1,69 @@
+package spiderfx.solver;
+
+import spiderfx.model.DealGenerator;
+import spiderfx.model.GameChange;
+import spiderfx.model.SpiderGame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 并行求解加速比测量（命令行，不依赖 JavaFX）
+ * 对同一批牌局依次用不同线程数求解，输出耗时、节点速率与相对首个线程数的加速比
+ * 牌局由主种子经 {@link DealGenerator#seeds} 派生，同一主种子在不同机器、不同版本上测的是同一批牌局
+ *
+ * 用法：java -cp out spiderfx.solver.SolverBenchmark [模式] [牌局数] [每局节点预算] [线程数列表] [主种子]
+ * 例如：java -cp out spiderfx.solver.SolverBenchmark TWO_SUITS 20 5000000 1,2,4,8,16,32 1
+ */
+public class SolverBenchmark {
+    public static void main(String[] args) {
+        SpiderGame.GameMode mode = args.length > 0 ? SpiderGame.GameMode.valueOf(args[0]) : SpiderGame.GameMode.TWO_SUITS;
+        int dealCount = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        long maxNodes = args.length > 2 ? Long.parseLong(args[2]) : 2_000_000L;
+        String threadList = args.length > 3 ? args[3] : "1,2,4,8";
+        long masterSeed = args.length > 4 ? Long.parseLong(args[4]) : 1L;
+
+        List<SpiderGame> deals = new ArrayList<>();
+        for (long seed : DealGenerator.seeds(masterSeed, dealCount)) {
+            deals.add(new SpiderGame(mode, seed));
+        }
+
+        System.out.printf("mode=%s deals=%d seed=%d nodes/deal=%d cores=%d%n",
+                mode, dealCount, masterSeed, maxNodes, Runtime.getRuntime().availableProcessors());
+        System.out.println("threads  solved  time(ms)  Mnodes/s  speedup");
+        double baseline = 0;
+        for (String token : threadList.split(",")) {
+            int threads = Integer.parseInt(token.trim());
+            ParallelSpiderSolver solver = new ParallelSpiderSolver(threads, maxNodes, Long.MAX_VALUE / 2_000_000L);
+            int solved = 0;
+            long nodes = 0;
+            long begin = System.nanoTime();
+            for (SpiderGame deal : deals) {
+                SolverResult result = solver.solve(deal);
+                nodes += result.getNodes();
+                if (result.isSolved()) {
+                    verify(deal, result);
+                    solved++;
+                }
+            }
+            double millis = (System.nanoTime() - begin) / 1e6;
+            if (baseline == 0) {
+                baseline = millis;
+            }
+            System.out.printf("%7d  %6d  %8.0f  %8.2f  %7.2f%n",
+                    threads, solved, millis, nodes / millis / 1000.0, baseline / millis);
+        }
+    }
+
+    private static void verify(SpiderGame deal, SolverResult result) {
+        SpiderGame replay = deal.copy();
+        for (int move : result.getMoves()) {
+            if (replay.applyMove(move) == GameChange.NONE) {
+                throw new IllegalStateException("Solver returned an illegal move");
+            }
+        }
+        if (!replay.isGameWon()) {
+            throw new IllegalStateException("Solver line does not win the game");
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package spiderfx.solver;
+
+import spiderfx.model.Move;
+
+/**
+ * 求解结果
+ * SOLVED 时 moves 为从起始局面到胜利的完整走法序列；
+ * 其他情况下 moves 为搜索中评价最高的局面所对应的走法序列（可能为空）
+ */
+public class SolverResult {
+    public enum Status {
+        SOLVED,           // 找到胜利路线
+        UNSOLVABLE,       // 在不受深度限制的情况下搜索完毕，确定无解
+        BUDGET_EXHAUSTED  // 节点数、时间或深度预算用尽，结论未知
+    }
+
+    private final Status status;
+    private final int[] moves;
+    private final long nodes;
+    private final long elapsedMillis;
+
+    public SolverResult(Status status, int[] moves, long nodes, long elapsedMillis) {
+        this.status = status;
+        this.moves = moves;
+        this.nodes = nodes;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public boolean isSolved() {
+        return status == Status.SOLVED;
+    }
+
+    /**
+     * 走法序列，元素为 {@link Move} 编码
+     */
+    public int[] getMoves() {
+        return moves;
+    }
+
+    /**
+     * 第一步走法，没有时返回 -1
+     */
+    public int getFirstMove() {
+        return moves.length > 0 ? moves[0] : -1;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s moves=%d nodes=%d time=%dms", status, moves.length, nodes, elapsedMillis);
+    }
+}
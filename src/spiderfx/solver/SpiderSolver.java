@@ -0,0 +1,55 @@
+package spiderfx.solver;
+
+import spiderfx.model.SpiderGame;
+
+/**
+ * 蜘蛛纸牌求解器（单线程）
+ * 在模型已知的完整牌面（包括牌堆中尚未发出的牌序）上做深度优先的最佳优先搜索：
+ * 每个局面的子走法按启发分排序后依次尝试，局面经置换表去重，
+ * 直到找到胜利路线、确认无解，或节点数/时间预算用尽
+ *
+ * 搜索只使用 {@link SpiderGame#generateMoves(int[])}、{@link SpiderGame#applyMove(int)} 和
+ * {@link SpiderGame#undoMove(int)}，在一份拷贝上原地推进与回退
+ *
+ * @see ParallelSpiderSolver
+ */
+public class SpiderSolver {
+    public static final int DEFAULT_TABLE_BITS = 20;
+    public static final int DEFAULT_MAX_DEPTH = 1500;
+
+    private final long maxNodes;
+    private final long timeLimitMillis;
+    private final int maxDepth;
+    private final PositionTable table;
+
+    /**
+     * @param maxNodes        最多展开的节点数
+     * @param timeLimitMillis 最长搜索时间（毫秒）
+     */
+    public SpiderSolver(long maxNodes, long timeLimitMillis) {
+        this(maxNodes, timeLimitMillis, DEFAULT_MAX_DEPTH, new TranspositionTable(DEFAULT_TABLE_BITS));
+    }
+
+    public SpiderSolver(long maxNodes, long timeLimitMillis, int maxDepth, PositionTable table) {
+        this.maxNodes = maxNodes;
+        this.timeLimitMillis = timeLimitMillis;
+        this.maxDepth = maxDepth;
+        this.table = table;
+    }
+
+    /**
+     * 求解给定局面，不会修改传入的游戏对象
+     */
+    public SolverResult solve(SpiderGame start) {
+        table.clear();
+        SearchContext context = new SearchContext(table, maxDepth, maxNodes, timeLimitMillis);
+        SpiderGame game = start.copy();
+        if (game.isGameWon()) {
+            context.solved(new int[0]);
+        } else {
+            table.store(game.positionHash(), maxDepth);
+            new DepthFirstSearch(game, context, new int[0], null).run();
+        }
+        return context.toResult();
+    }
+}
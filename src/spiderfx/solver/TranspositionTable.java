@@ -0,0 +1,52 @@
+package spiderfx.solver;
+
+import java.util.Arrays;
+
+/**
+ * 定长置换表（单线程），以局面哈希为键记录“该局面已经以多少剩余深度搜索过”
+ * 每个桶两路，冲突时替换剩余深度较小的一路，内存占用固定
+ */
+public class TranspositionTable implements PositionTable {
+    private final long[] keys;
+    private final short[] depths;
+    private final int mask;
+
+    /**
+     * @param bits 表大小为 2^bits 项（每项 10 字节）
+     */
+    public TranspositionTable(int bits) {
+        if (bits < 1 || bits > 28) {
+            throw new IllegalArgumentException("bits out of range: " + bits);
+        }
+        keys = new long[1 << bits];
+        depths = new short[1 << bits];
+        mask = (1 << bits) - 2; // 桶起点为偶数下标
+    }
+
+    @Override
+    public boolean probe(long hash, int remaining) {
+        long key = hash == 0 ? 1 : hash;
+        int slot = (int) (key ^ (key >>> 32)) & mask;
+        return (keys[slot] == key && depths[slot] >= remaining)
+                || (keys[slot + 1] == key && depths[slot + 1] >= remaining);
+    }
+
+    @Override
+    public void store(long hash, int remaining) {
+        long key = hash == 0 ? 1 : hash;
+        int slot = (int) (key ^ (key >>> 32)) & mask;
+        if (keys[slot] != key && (keys[slot + 1] == key || depths[slot + 1] < depths[slot])) {
+            slot++;
+        }
+        if (keys[slot] != key || depths[slot] < remaining) {
+            keys[slot] = key;
+            depths[slot] = (short) remaining;
+        }
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        Arrays.fill(depths, (short) 0);
+    }
+}
@@ -0,0 +1,452 @@
+package spiderfx.view;
+
+import javafx.animation.PauseTransition;
+import javafx.geometry.Point2D;
+import javafx.scene.Cursor;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.CycleMethod;
+import javafx.scene.paint.LinearGradient;
+import javafx.scene.paint.Stop;
+import javafx.util.Duration;
+import spiderfx.controller.GameController;
+import spiderfx.model.Card;
+import spiderfx.model.SpiderGame;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 画布模式的牌桌：牌堆、8 个完成区和 10 列牌都画在同一个 {@link Canvas} 上，
+ * 不为每张牌创建节点，因而没有逐张牌的 CSS 与布局开销
+ *
+ * 每个区域记住上次画出的内容，刷新时只清除并重画发生变化的矩形：
+ * 一列中从第一张变化的牌（连同压在其下的前一张）到列底；完成区与牌堆各自独立
+ * 鼠标命中由本类自己计算，再以 {@link TableauColumn} 适配器的形式交给控制器，
+ * 控制器的按下、拖放判定代码不必区分两种渲染方式
+ */
+public class CanvasTableau extends Region {
+    private static final double CARD_WIDTH = ColumnView.CARD_WIDTH;
+    private static final double CARD_HEIGHT = ColumnView.CARD_HEIGHT;
+    private static final double SIDE_PADDING = 50;
+    private static final double TOP_PADDING = 10;
+    private static final double STOCK_SPACING = 40;       // 牌堆与完成区之间的距离
+    private static final double FOUNDATION_SPACING = 15;
+    private static final double COLUMNS_TOP = TOP_PADDING + CARD_HEIGHT + 20;
+    private static final double BOTTOM_PADDING = 40;
+    private static final double ARC = 28;
+    private static final double SHADOW_OFFSET = 3;
+    private static final int FOUNDATION_COUNT = 8;
+    private static final int MAX_STOCK_VISUALS = 5;
+
+    private static final Color SHADOW = Color.rgb(0, 0, 0, 0.3);
+    private static final LinearGradient FACE_FILL = new LinearGradient(0, 0, 0, 1, true, CycleMethod.NO_CYCLE,
+            new Stop(0, Color.web("#fff")), new Stop(0.5, Color.web("#f7f7f7")), new Stop(1, Color.web("#ececec")));
+    private static final Color FACE_BORDER = Color.web("#333333");
+    private static final LinearGradient BACK_FILL = new LinearGradient(0, 0, 0, 1, true, CycleMethod.NO_CYCLE,
+            new Stop(0, Color.web("#2b5c97")), new Stop(0.8, Color.web("#13305f")));
+    private static final Color BACK_BORDER = Color.web("#153055");
+    private static final Color SLOT_BORDER = Color.rgb(255, 255, 255, 0.45);
+    private static final Color HINT_BORDER = Color.web("#ffd54f");
+
+    private final Canvas canvas = new Canvas();
+    private final CanvasColumn[] columns = new CanvasColumn[SpiderGame.COLUMN_COUNT];
+    private final Card[] foundationTops = new Card[FOUNDATION_COUNT];
+    private final Card[] drawnFoundationTops = new Card[FOUNDATION_COUNT];
+    private int stockRounds;
+    private int drawnStockRounds = -1;
+    private double columnWidth = CARD_WIDTH + 20;
+    private double columnSpacing = 10;
+    private GameController controller;
+    private Runnable onStockClicked;
+    private PauseTransition hintTimer;
+
+    public CanvasTableau() {
+        getStyleClass().add("canvas-tableau");
+        getChildren().add(canvas);
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = new CanvasColumn(i);
+        }
+        canvas.setOnMousePressed(this::onMousePressed);
+        canvas.setOnMouseMoved(e -> canvas.setCursor(isOnStock(e.getX(), e.getY()) ? Cursor.HAND : Cursor.DEFAULT));
+    }
+
+    public TableauColumn[] getColumns() {
+        return columns;
+    }
+
+    public void setOnStockClicked(Runnable onStockClicked) {
+        this.onStockClicked = onStockClicked;
+    }
+
+    public void setFoundationTops(SpiderGame game) {
+        List<List<Card>> foundations = game.getFoundations();
+        for (int i = 0; i < FOUNDATION_COUNT; i++) {
+            List<Card> sequence = i < foundations.size() ? foundations.get(i) : Collections.emptyList();
+            foundationTops[i] = sequence.isEmpty() ? null : sequence.get(sequence.size() - 1);
+            paintFoundation(i, false);
+        }
+    }
+
+    /**
+     * @param rounds 牌堆中还能发的轮数
+     */
+    public void setStockRounds(int rounds) {
+        stockRounds = rounds;
+        paintStock(false);
+    }
+
+    /**
+     * 取消所有列的隐藏并重画（画布模式下代替发牌与新局的飞牌动画）
+     */
+    public void revealAll() {
+        for (CanvasColumn column : columns) {
+            column.hiddenFrom = Integer.MAX_VALUE;
+            paintColumn(column, false);
+        }
+    }
+
+    /**
+     * 短暂高亮提示的源序列与目标列（画布模式下代替飞行的提示牌影）
+     */
+    public void flashHint(int fromColumn, int startIndex, int toColumn) {
+        clearHint();
+        columns[fromColumn].hintStart = startIndex;
+        columns[toColumn].hintTarget = true;
+        paintColumn(columns[fromColumn], false);
+        paintColumn(columns[toColumn], false);
+        hintTimer = new PauseTransition(Duration.millis(700));
+        hintTimer.setOnFinished(e -> clearHint());
+        hintTimer.play();
+    }
+
+    private void clearHint() {
+        if (hintTimer != null) {
+            hintTimer.stop();
+            hintTimer = null;
+        }
+        for (CanvasColumn column : columns) {
+            if (column.hintStart >= 0 || column.hintTarget) {
+                column.hintStart = -1;
+                column.hintTarget = false;
+                paintColumn(column, false);
+            }
+        }
+    }
+
+    @Override
+    protected void layoutChildren() {
+        double width = getWidth();
+        double height = getHeight();
+        if (canvas.getWidth() == width && canvas.getHeight() == height) {
+            return;
+        }
+        canvas.setWidth(width);
+        canvas.setHeight(height);
+        updateColumnLayout(width);
+        canvas.getGraphicsContext2D().clearRect(0, 0, width, height);
+        paintStock(true);
+        for (int i = 0; i < FOUNDATION_COUNT; i++) {
+            paintFoundation(i, true);
+        }
+        for (CanvasColumn column : columns) {
+            paintColumn(column, true);
+        }
+    }
+
+    /**
+     * 与节点模式的列布局相同：每列宽 CARD_WIDTH + 20，放不下时收窄，剩余空间均分为列间距
+     */
+    private void updateColumnLayout(double width) {
+        int count = columns.length;
+        double available = width - SIDE_PADDING * 2;
+        double desiredWidth = CARD_WIDTH + 20;
+        double minWidth = CARD_WIDTH + 6;
+        double minSpacing = 4.0;
+        double maxColumnsWidth = available - (count - 1) * minSpacing;
+        if (maxColumnsWidth <= 0) {
+            return;
+        }
+        columnWidth = desiredWidth;
+        if (maxColumnsWidth < columnWidth * count) {
+            columnWidth = Math.max(minWidth, maxColumnsWidth / count);
+        }
+        columnSpacing = Math.max(minSpacing, (available - columnWidth * count) / (count - 1));
+    }
+
+    private double columnX(int column) {
+        return SIDE_PADDING + column * (columnWidth + columnSpacing);
+    }
+
+    private double cardX(int column) {
+        return columnX(column) + (columnWidth - CARD_WIDTH) / 2;
+    }
+
+    private static double cardY(int index, double gap) {
+        return COLUMNS_TOP + ColumnView.TOP_MARGIN + index * gap;
+    }
+
+    private double foundationX(int index) {
+        return SIDE_PADDING + CARD_WIDTH + STOCK_SPACING + index * (CARD_WIDTH + FOUNDATION_SPACING);
+    }
+
+    private double computeGap(int size) {
+        double available = getHeight() - COLUMNS_TOP - BOTTOM_PADDING;
+        if (available <= 0 || size <= 1) {
+            return ColumnView.CARD_GAP;
+        }
+        double availableGap = (available - CARD_HEIGHT - ColumnView.TOP_MARGIN) / (size - 1);
+        return Math.max(8, Math.min(ColumnView.CARD_GAP, availableGap));
+    }
+
+    /**
+     * 重画一列中发生变化的部分
+     *
+     * @param force 忽略上次绘制的记录，整列重画
+     */
+    private void paintColumn(CanvasColumn column, boolean force) {
+        if (canvas.getWidth() == 0 || canvas.getHeight() == 0) {
+            return; // 尚未布局，首次 layoutChildren 时会整列重画
+        }
+        List<Card> cards = column.cards;
+        int size = cards.size();
+        double gap = computeGap(size);
+        column.gap = gap;
+
+        int first;
+        if (force || gap != column.drawnGap
+                || column.hintStart != column.drawnHintStart || column.hintTarget != column.drawnHintTarget) {
+            first = 0;
+        } else {
+            int common = Math.min(size, column.drawnSize);
+            first = common;
+            for (int i = 0; i < common; i++) {
+                boolean visible = i < column.hiddenFrom;
+                boolean drawnVisible = i < column.drawnHiddenFrom;
+                if (cards.get(i) != column.drawn[i] || visible != drawnVisible) {
+                    first = i;
+                    break;
+                }
+            }
+            if (first == size && size == column.drawnSize) {
+                return; // 没有变化
+            }
+        }
+
+        // 只清掉第一张变化的牌及以下的区域；前一张牌伸进这块区域的下半部分在裁剪范围内重画，
+        // 更早的牌在这块区域里都被它盖住，裁剪区以外的部分保持不动
+        int from = Math.max(0, first - 1);
+        double clearTop = first == 0 ? COLUMNS_TOP : cardY(first, gap);
+        double x = cardX(column.index);
+        GraphicsContext g = canvas.getGraphicsContext2D();
+        double clearHeight = canvas.getHeight() - clearTop;
+        g.clearRect(columnX(column.index), clearTop, columnWidth, clearHeight);
+        g.save();
+        g.beginPath();
+        g.rect(columnX(column.index), clearTop, columnWidth, clearHeight);
+        g.clip();
+        for (int i = from; i < size && i < column.hiddenFrom; i++) {
+            paintCard(g, cards.get(i), x, cardY(i, gap));
+        }
+        if (column.hintStart >= 0 && column.hintStart < size) {
+            double top = cardY(column.hintStart, gap);
+            strokeHint(g, x, top, cardY(size - 1, gap) + CARD_HEIGHT - top);
+        }
+        if (column.hintTarget) {
+            strokeHint(g, x, cardY(Math.max(0, size - 1), gap), CARD_HEIGHT);
+        }
+        g.restore();
+
+        if (column.drawn.length < size) {
+            column.drawn = Arrays.copyOf(column.drawn, Math.max(size, column.drawn.length * 2));
+        }
+        for (int i = first; i < size; i++) {
+            column.drawn[i] = cards.get(i);
+        }
+        column.drawnSize = size;
+        column.drawnHiddenFrom = column.hiddenFrom;
+        column.drawnGap = gap;
+        column.drawnHintStart = column.hintStart;
+        column.drawnHintTarget = column.hintTarget;
+    }
+
+    private void paintFoundation(int index, boolean force) {
+        if (canvas.getWidth() == 0 || (!force && foundationTops[index] == drawnFoundationTops[index])) {
+            return;
+        }
+        double x = foundationX(index);
+        GraphicsContext g = canvas.getGraphicsContext2D();
+        g.clearRect(x - 2, TOP_PADDING - 2, CARD_WIDTH + 4, CARD_HEIGHT + SHADOW_OFFSET + 4);
+        Card top = foundationTops[index];
+        if (top == null) {
+            g.setStroke(SLOT_BORDER);
+            g.setLineWidth(1.5);
+            g.strokeRoundRect(x + 0.75, TOP_PADDING + 0.75, CARD_WIDTH - 1.5, CARD_HEIGHT - 1.5, 10, 10);
+        } else {
+            paintCard(g, top, x, TOP_PADDING);
+        }
+        drawnFoundationTops[index] = top;
+    }
+
+    private void paintStock(boolean force) {
+        if (canvas.getWidth() == 0 || (!force && stockRounds == drawnStockRounds)) {
+            return;
+        }
+        int visuals = Math.min(stockRounds, MAX_STOCK_VISUALS);
+        GraphicsContext g = canvas.getGraphicsContext2D();
+        g.clearRect(SIDE_PADDING - 2, TOP_PADDING - 2,
+                CARD_WIDTH + MAX_STOCK_VISUALS * 2 + 4, CARD_HEIGHT + MAX_STOCK_VISUALS * 2 + SHADOW_OFFSET + 4);
+        for (int i = 0; i < visuals; i++) {
+            paintBack(g, SIDE_PADDING + i * 2, TOP_PADDING + i * 2);
+        }
+        drawnStockRounds = stockRounds;
+    }
+
+    private static void paintCard(GraphicsContext g, Card card, double x, double y) {
+        g.setFill(SHADOW);
+        g.fillRoundRect(x, y + SHADOW_OFFSET, CARD_WIDTH, CARD_HEIGHT, ARC, ARC);
+        if (!card.isFaceUp()) {
+            paintBack(g, x, y);
+            return;
+        }
+        g.setFill(FACE_FILL);
+        g.fillRoundRect(x, y, CARD_WIDTH, CARD_HEIGHT, ARC, ARC);
+        g.setStroke(FACE_BORDER);
+        g.setLineWidth(1.5);
+        g.strokeRoundRect(x + 0.75, y + 0.75, CARD_WIDTH - 1.5, CARD_HEIGHT - 1.5, ARC, ARC);
+        CardImages.drawFace(g, card, x, y);
+    }
+
+    private static void paintBack(GraphicsContext g, double x, double y) {
+        if (CardImages.drawBack(g, x, y)) {
+            return;
+        }
+        g.setFill(BACK_FILL);
+        g.fillRoundRect(x, y, CARD_WIDTH, CARD_HEIGHT, ARC, ARC);
+        g.setStroke(BACK_BORDER);
+        g.setLineWidth(1.5);
+        g.strokeRoundRect(x + 0.75, y + 0.75, CARD_WIDTH - 1.5, CARD_HEIGHT - 1.5, ARC, ARC);
+    }
+
+    private static void strokeHint(GraphicsContext g, double x, double y, double height) {
+        g.setStroke(HINT_BORDER);
+        g.setLineWidth(3);
+        g.strokeRoundRect(x - 1.5, y - 1.5, CARD_WIDTH + 3, height + 3, ARC, ARC);
+    }
+
+    private boolean isOnStock(double x, double y) {
+        return stockRounds > 0
+                && x >= SIDE_PADDING && x <= SIDE_PADDING + CARD_WIDTH + MAX_STOCK_VISUALS * 2
+                && y >= TOP_PADDING && y <= TOP_PADDING + CARD_HEIGHT + MAX_STOCK_VISUALS * 2;
+    }
+
+    /**
+     * 画布坐标所在的列，不在任何列上返回 -1
+     */
+    int columnAt(double x, double y) {
+        if (y < COLUMNS_TOP || y > canvas.getHeight()) {
+            return -1;
+        }
+        for (int i = 0; i < columns.length; i++) {
+            double left = columnX(i);
+            if (x >= left && x <= left + columnWidth) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 画布坐标命中的牌（压在最上面的那张可见牌）的下标，没有命中返回 -1
+     */
+    int cardAt(int column, double x, double y) {
+        CanvasColumn c = columns[column];
+        double left = cardX(column);
+        if (x < left || x > left + CARD_WIDTH) {
+            return -1;
+        }
+        int visible = Math.min(c.cards.size(), c.hiddenFrom);
+        for (int i = visible - 1; i >= 0; i--) {
+            double top = cardY(i, c.gap);
+            if (y >= top && y <= top + CARD_HEIGHT) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void onMousePressed(MouseEvent event) {
+        double x = event.getX();
+        double y = event.getY();
+        if (isOnStock(x, y)) {
+            if (onStockClicked != null) {
+                onStockClicked.run();
+            }
+            return;
+        }
+        int column = columnAt(x, y);
+        if (column < 0 || controller == null) {
+            return;
+        }
+        int index = cardAt(column, x, y);
+        if (index >= 0) {
+            controller.onCardPressed(column, index, event);
+        }
+    }
+
+    /**
+     * 画布中一列的状态，同时作为控制器使用的列适配器
+     */
+    private final class CanvasColumn implements TableauColumn {
+        final int index;
+        List<Card> cards = Collections.emptyList();
+        int hiddenFrom = Integer.MAX_VALUE;
+        double gap = ColumnView.CARD_GAP;
+        int hintStart = -1;
+        boolean hintTarget;
+
+        // 上次实际画出的内容
+        Card[] drawn = new Card[32];
+        int drawnSize;
+        int drawnHiddenFrom = Integer.MAX_VALUE;
+        double drawnGap = -1;
+        int drawnHintStart = -1;
+        boolean drawnHintTarget;
+
+        CanvasColumn(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public int getColumnIndex() {
+            return index;
+        }
+
+        @Override
+        public void setHiddenFromIndex(int hiddenFromIndex) {
+            hiddenFrom = hiddenFromIndex;
+        }
+
+        @Override
+        public void render(List<Card> cards, GameController controller) {
+            this.cards = cards;
+            CanvasTableau.this.controller = controller;
+            paintColumn(this, false);
+        }
+
+        @Override
+        public boolean containsScenePoint(double sceneX, double sceneY) {
+            Point2D p = canvas.sceneToLocal(sceneX, sceneY);
+            return columnAt(p.getX(), p.getY()) == index;
+        }
+
+        @Override
+        public double getCurrentGap() {
+            return gap;
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package spiderfx.view;
+
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.Scene;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.Label;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.layout.StackPane;
+import javafx.scene.paint.Color;
+import spiderfx.model.Card;
+
+/**
+ * 全进程共享的牌面图片缓存
+ * /cards 下的牌面与牌背 PNG 只解码一次，拼进同一张图集 {@link WritableImage}，
+ * 每个 {@link ImageView} 通过 viewport 截取其中一格；图集可在启动时由后台线程预先加载
+ * 缺少图片资源的牌改用文字标签绘制，标签也只渲染一次并缓存为快照图片
+ */
+public final class CardImages {
+    private static final double CARD_WIDTH = 80;
+    private static final double CARD_HEIGHT = 110;
+    private static final int RANKS = 13;
+    private static final int BACK_SLOT = Card.Suit.values().length * RANKS; // 牌背放在最后一格
+    private static final int ATLAS_COLUMNS = RANKS;
+
+    private static volatile Atlas atlas;
+    private static final Image[] labelSnapshots = new Image[BACK_SLOT]; // 只在 FX 线程访问
+
+    private CardImages() {
+    }
+
+    /**
+     * 图集：一张大图加上每格的 viewport，缺图的格子为 null
+     */
+    private static final class Atlas {
+        final WritableImage image;
+        final Rectangle2D[] viewports;
+
+        Atlas(WritableImage image, Rectangle2D[] viewports) {
+            this.image = image;
+            this.viewports = viewports;
+        }
+    }
+
+    /**
+     * 在后台线程解码全部图片，之后首次渲染无需等待
+     */
+    public static void preloadAsync() {
+        Thread loader = new Thread(CardImages::atlas, "card-image-preload");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    /**
+     * 牌面图片；没有对应资源时返回文字标签的快照（需在 FX 线程调用）
+     */
+    static ImageView faceView(Card card) {
+        int slot = slotOf(card);
+        Atlas a = atlas();
+        if (a.viewports[slot] != null) {
+            return viewOf(a, slot);
+        }
+        Image snapshot = labelSnapshots[slot];
+        if (snapshot == null) {
+            snapshot = snapshotLabels(card);
+            labelSnapshots[slot] = snapshot;
+        }
+        return new ImageView(snapshot);
+    }
+
+    /**
+     * 牌背图片，没有资源时返回 null（由样式表绘制牌背）
+     */
+    static ImageView backView() {
+        Atlas a = atlas();
+        return a.viewports[BACK_SLOT] != null ? viewOf(a, BACK_SLOT) : null;
+    }
+
+    /**
+     * 在画布上绘制牌面图案（不含底色与边框），供 {@link CanvasTableau} 使用（需在 FX 线程调用）
+     */
+    static void drawFace(GraphicsContext g, Card card, double x, double y) {
+        int slot = slotOf(card);
+        Atlas a = atlas();
+        Rectangle2D viewport = a.viewports[slot];
+        if (viewport != null) {
+            drawCentered(g, a.image, viewport, x, y);
+            return;
+        }
+        Image snapshot = labelSnapshots[slot];
+        if (snapshot == null) {
+            snapshot = snapshotLabels(card);
+            labelSnapshots[slot] = snapshot;
+        }
+        g.drawImage(snapshot, x, y);
+    }
+
+    /**
+     * 在画布上绘制牌背图片
+     *
+     * @return 没有牌背资源时返回 false，由调用方自行绘制
+     */
+    static boolean drawBack(GraphicsContext g, double x, double y) {
+        Atlas a = atlas();
+        Rectangle2D viewport = a.viewports[BACK_SLOT];
+        if (viewport == null) {
+            return false;
+        }
+        drawCentered(g, a.image, viewport, x, y);
+        return true;
+    }
+
+    private static void drawCentered(GraphicsContext g, Image image, Rectangle2D viewport, double x, double y) {
+        double dx = x + (CARD_WIDTH - viewport.getWidth()) / 2;
+        double dy = y + (CARD_HEIGHT - viewport.getHeight()) / 2;
+        g.drawImage(image, viewport.getMinX(), viewport.getMinY(), viewport.getWidth(), viewport.getHeight(),
+                dx, dy, viewport.getWidth(), viewport.getHeight());
+    }
+
+    private static ImageView viewOf(Atlas a, int slot) {
+        ImageView view = new ImageView(a.image);
+        view.setViewport(a.viewports[slot]);
+        return view;
+    }
+
+    private static int slotOf(Card card) {
+        return card.getSuit().ordinal() * RANKS + card.getRank() - 1;
+    }
+
+    /**
+     * 首次调用时加载图集；预加载线程与 FX 线程同时调用时后者等待前者完成
+     */
+    private static Atlas atlas() {
+        Atlas a = atlas;
+        if (a == null) {
+            synchronized (CardImages.class) {
+                a = atlas;
+                if (a == null) {
+                    a = loadAtlas();
+                    atlas = a;
+                }
+            }
+        }
+        return a;
+    }
+
+    private static Atlas loadAtlas() {
+        int cellWidth = (int) CARD_WIDTH;
+        int cellHeight = (int) CARD_HEIGHT;
+        int rows = BACK_SLOT / ATLAS_COLUMNS + 1;
+        WritableImage image = new WritableImage(ATLAS_COLUMNS * cellWidth, rows * cellHeight);
+        Rectangle2D[] viewports = new Rectangle2D[BACK_SLOT + 1];
+        int[] pixels = new int[cellWidth * cellHeight];
+        for (int slot = 0; slot <= BACK_SLOT; slot++) {
+            String fileName = slot == BACK_SLOT
+                    ? "back.png"
+                    : fileNameOf(Card.Suit.values()[slot / RANKS], slot % RANKS + 1);
+            var url = CardImages.class.getResource("/cards/" + fileName);
+            if (url == null) {
+                continue;
+            }
+            Image source = new Image(url.toExternalForm(), CARD_WIDTH, CARD_HEIGHT, true, true);
+            if (source.isError()) {
+                continue;
+            }
+            int w = Math.min(cellWidth, (int) source.getWidth());
+            int h = Math.min(cellHeight, (int) source.getHeight());
+            int x = (slot % ATLAS_COLUMNS) * cellWidth;
+            int y = (slot / ATLAS_COLUMNS) * cellHeight;
+            source.getPixelReader().getPixels(0, 0, w, h, PixelFormat.getIntArgbInstance(), pixels, 0, w);
+            image.getPixelWriter().setPixels(x, y, w, h, PixelFormat.getIntArgbInstance(), pixels, 0, w);
+            viewports[slot] = new Rectangle2D(x, y, w, h);
+        }
+        return new Atlas(image, viewports);
+    }
+
+    private static String fileNameOf(Card.Suit suit, int rank) {
+        String suitName;
+        switch (suit) {
+            case HEART:
+                suitName = "heart";
+                break;
+            case DIAMOND:
+                suitName = "diamond";
+                break;
+            case CLUB:
+                suitName = "club";
+                break;
+            default:
+                suitName = "spade";
+        }
+        return suitName + "_" + rank + ".png";
+    }
+
+    /**
+     * 按原来的文字样式（左上角与右下角各一个点数+花色）渲染透明背景的快照，
+     * 卡片底色仍由 CardView 自身的样式类绘制
+     */
+    private static Image snapshotLabels(Card card) {
+        StackPane pane = new StackPane();
+        pane.setMinSize(CARD_WIDTH, CARD_HEIGHT);
+        pane.setPrefSize(CARD_WIDTH, CARD_HEIGHT);
+        pane.setMaxSize(CARD_WIDTH, CARD_HEIGHT);
+        pane.setPadding(new Insets(1.5)); // 与 .card 的边框宽度一致，标签位置与原先相同
+        String colorClass = card.getSuit() == Card.Suit.HEART || card.getSuit() == Card.Suit.DIAMOND
+                ? "card-red" : "card-black";
+
+        Label rankTop = new Label(card.getRankSymbol() + suitSymbol(card.getSuit()));
+        rankTop.getStyleClass().addAll("card-rank", colorClass);
+        StackPane.setAlignment(rankTop, Pos.TOP_LEFT);
+        Label rankBottom = new Label(card.getRankSymbol() + suitSymbol(card.getSuit()));
+        rankBottom.getStyleClass().addAll("card-rank", colorClass);
+        StackPane.setAlignment(rankBottom, Pos.BOTTOM_RIGHT);
+        pane.getChildren().addAll(rankTop, rankBottom);
+
+        Scene scene = new Scene(pane, CARD_WIDTH, CARD_HEIGHT, Color.TRANSPARENT);
+        var css = CardImages.class.getResource("/spiderfx/spider.css");
+        if (css != null) {
+            scene.getStylesheets().add(css.toExternalForm());
+        }
+        pane.applyCss();
+        pane.layout();
+        SnapshotParameters params = new SnapshotParameters();
+        params.setFill(Color.TRANSPARENT);
+        return pane.snapshot(params, null);
+    }
+
+    static String suitSymbol(Card.Suit suit) {
+        switch (suit) {
+            case SPADE:
+                return "♠";
+            case HEART:
+                return "♥";
+            case DIAMOND:
+                return "♦";
+            case CLUB:
+                return "♣";
+            default:
+                return "?";
+        }
+    }
+}
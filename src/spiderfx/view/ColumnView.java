@@ -9,9 +9,10 @@ import javafx.util.Duration;
 import spiderfx.model.Card;
 import spiderfx.controller.GameController;
 
+import java.util.ArrayList;
 import java.util.List;
 
-public class ColumnView extends Pane {
+public class ColumnView extends Pane implements TableauColumn {
     public static final double CARD_WIDTH = 80;
     public static final double CARD_HEIGHT = 110;
     public static final double CARD_GAP = 30;
@@ -22,6 +23,7 @@ public class ColumnView extends Pane {
     private double currentGap = CARD_GAP;
     private List<Card> cards;
     private GameController controller;
+    private final List<CardView> pool = new ArrayList<>(); // 已移出场景图、可复用的节点
 
     public ColumnView(int columnIndex) {
         this.columnIndex = columnIndex;
@@ -30,14 +32,17 @@ public class ColumnView extends Pane {
         heightProperty().addListener((obs, oldVal, newVal) -> layoutCards());
     }
 
+    @Override
     public int getColumnIndex() {
         return columnIndex;
     }
 
+    @Override
     public void setHiddenFromIndex(int hiddenFromIndex) {
         this.hiddenFromIndex = hiddenFromIndex;
     }
 
+    @Override
     public void render(List<Card> cards, GameController controller) {
         this.cards = cards;
         this.controller = controller;
@@ -60,6 +65,7 @@ public class ColumnView extends Pane {
         new ParallelTransition(scale, translate).play();
     }
 
+    @Override
     public boolean containsScenePoint(double sceneX, double sceneY) {
         var p = sceneToLocal(sceneX, sceneY);
         var bounds = getLayoutBounds();
@@ -67,13 +73,18 @@ public class ColumnView extends Pane {
                 && p.getY() >= bounds.getMinY() && p.getY() <= bounds.getMaxY();
     }
 
+    @Override
     public double getCurrentGap() {
         return currentGap;
     }
 
+    /**
+     * 按位置复用已有的 CardView：只有牌或正反面变了的节点才重建内容，
+     * 其余节点只调整 layoutY 与可见性；多出来的节点移入备用池，不足时优先从池中取
+     */
     private void layoutCards() {
-        getChildren().clear();
         if (cards == null || controller == null) {
+            releaseFrom(0);
             return;
         }
         double gap = CARD_GAP;
@@ -85,17 +96,46 @@ public class ColumnView extends Pane {
             }
         }
         currentGap = gap;
-        for (int i = 0; i < cards.size(); i++) {
+        List<Node> children = getChildren();
+        int size = cards.size();
+        releaseFrom(size);
+        for (int i = 0; i < size; i++) {
             Card card = cards.get(i);
-            CardView view = new CardView(card);
-            view.setLayoutX(10);
-            view.setLayoutY(TOP_MARGIN + i * gap);
-            if (i >= hiddenFromIndex) {
-                view.setVisible(false);
+            CardView view;
+            if (i < children.size()) {
+                view = (CardView) children.get(i);
+                view.setCard(card); // 牌对象是复用的实例，相同则直接返回
+            } else {
+                view = pool.isEmpty() ? new CardView(card) : pool.remove(pool.size() - 1);
+                view.setCard(card);
+                view.setLayoutX(10);
+                final int cardIndex = i;
+                view.setOnMousePressed(e -> controller.onCardPressed(columnIndex, cardIndex, e));
+                children.add(view);
             }
-            final int cardIndex = i;
-            view.setOnMousePressed(e -> controller.onCardPressed(columnIndex, cardIndex, e));
-            getChildren().add(view);
+            double y = TOP_MARGIN + i * gap;
+            if (view.getLayoutY() != y) {
+                view.setLayoutY(y);
+            }
+            view.setVisible(i < hiddenFromIndex);
+        }
+    }
+
+    /**
+     * 把下标 from 及之后的节点移出场景图放入备用池
+     */
+    private void releaseFrom(int from) {
+        List<Node> children = getChildren();
+        if (from >= children.size()) {
+            return;
+        }
+        List<Node> released = children.subList(from, children.size());
+        for (Node node : released) {
+            CardView view = (CardView) node;
+            view.setOnMousePressed(null);
+            view.setVisible(true);
+            pool.add(view);
         }
+        released.clear();
     }
 }
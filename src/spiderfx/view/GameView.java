@@ -38,17 +38,26 @@ import spiderfx.model.Card;
 import spiderfx.model.SpiderGame;
 
 public class GameView extends StackPane {
+    /**
+     * 以 -Dspiderfx.renderer=canvas 启动时，牌桌改为单个画布绘制（见 {@link CanvasTableau}）
+     */
+    private static final boolean CANVAS_RENDERER = "canvas".equalsIgnoreCase(System.getProperty("spiderfx.renderer"));
+
     private final BorderPane board;
     private final Pane dragLayer;
-    private final ColumnView[] columns;
+    private final TableauColumn[] columns;
+    private final ColumnView[] columnViews;       // 节点模式下的列视图，画布模式为 null
+    private final CanvasTableau canvasTableau;    // 画布模式下的牌桌，节点模式为 null
     private final FoundationView[] foundations;
     private final Button newGameButton;
     private final Button undoButton;
+    private final Button redoButton;
     private final Button hintButton;
     private final Button dealButton;
     private final Button saveButton;
     private final Button loadButton;
     private final Button achievementButton; // 新增：成就/记录按钮
+    private final Button replayButton;
     private final Button customizeButton; // 新增：自定义背景
     private final MenuButton gameModeMenuButton;
     private final MenuItem singleSuitItem;
@@ -72,6 +81,8 @@ public class GameView extends StackPane {
         newGameButton.getStyleClass().add("primary-button");
         undoButton = new Button("撤销");
         undoButton.getStyleClass().add("primary-button");
+        redoButton = new Button("重做");
+        redoButton.getStyleClass().add("primary-button");
         hintButton = new Button("提示");
         hintButton.getStyleClass().add("primary-button");
         dealButton = new Button("发牌");
@@ -84,6 +95,8 @@ public class GameView extends StackPane {
 
         achievementButton = new Button("成就与记录");
         achievementButton.getStyleClass().add("primary-button");
+        replayButton = new Button("回放");
+        replayButton.getStyleClass().add("primary-button");
 
         customizeButton = new Button("✎");
         customizeButton.getStyleClass().add("customize-button");
@@ -134,6 +147,7 @@ public class GameView extends StackPane {
         // 添加控制按键到菜单栏
         menuBar.getChildren().add(newGameButton);
         menuBar.getChildren().add(undoButton);
+        menuBar.getChildren().add(redoButton);
         
         // 剩余发牌次数显示
         this.stockCountLabel = new Label();
@@ -147,6 +161,7 @@ public class GameView extends StackPane {
         menuBar.getChildren().add(saveButton);
         menuBar.getChildren().add(loadButton);
         menuBar.getChildren().add(achievementButton);
+        menuBar.getChildren().add(replayButton);
         menuBar.getChildren().add(hintButton);
         
         menuBar.getChildren().add(gameModeMenuButton);
@@ -208,31 +223,47 @@ public class GameView extends StackPane {
         VBox topWrapper = new VBox(4);
         topWrapper.getChildren().add(infoBar);
         topWrapper.getChildren().add(menuBar);
-        topWrapper.getChildren().add(foundationBox);
         board.setTop(topWrapper);
 
-        HBox columnsBox = new HBox(10);
-        columnsBox.setPadding(new Insets(20, 50, 40, 50));
-        columnsBox.setAlignment(Pos.TOP_CENTER);
-        columnsBox.setFillHeight(true);
-        columnsBox.getStyleClass().add("columns-box");
-        columns = new ColumnView[SpiderGame.COLUMN_COUNT];
-        for (int i = 0; i < SpiderGame.COLUMN_COUNT; i++) {
-            ColumnView columnView = new ColumnView(i);
-            columns[i] = columnView;
-            columnsBox.getChildren().add(columnView);
-        }
-        columnsBox.heightProperty().addListener((obs, o, n) -> {
-            double h = n.doubleValue() - columnsBox.getPadding().getTop() - columnsBox.getPadding().getBottom();
-            if (h <= 0) return;
-            for (ColumnView c : columns) {
-                c.setMinHeight(h);
-                c.setPrefHeight(h);
+        if (CANVAS_RENDERER) {
+            // 牌堆、完成区与各列都由画布绘制
+            columnViews = null;
+            canvasTableau = new CanvasTableau();
+            canvasTableau.setOnStockClicked(() -> {
+                if (dealButton.getOnAction() != null) {
+                    dealButton.getOnAction().handle(new javafx.event.ActionEvent());
+                }
+            });
+            columns = canvasTableau.getColumns();
+            board.setCenter(canvasTableau);
+        } else {
+            canvasTableau = null;
+            topWrapper.getChildren().add(foundationBox);
+
+            HBox columnsBox = new HBox(10);
+            columnsBox.setPadding(new Insets(20, 50, 40, 50));
+            columnsBox.setAlignment(Pos.TOP_CENTER);
+            columnsBox.setFillHeight(true);
+            columnsBox.getStyleClass().add("columns-box");
+            columnViews = new ColumnView[SpiderGame.COLUMN_COUNT];
+            for (int i = 0; i < SpiderGame.COLUMN_COUNT; i++) {
+                ColumnView columnView = new ColumnView(i);
+                columnViews[i] = columnView;
+                columnsBox.getChildren().add(columnView);
             }
-        });
-        columnsBox.widthProperty().addListener((obs, oldVal, newVal) -> updateColumnLayout(columnsBox));
-        javafx.application.Platform.runLater(() -> updateColumnLayout(columnsBox));
-        board.setCenter(columnsBox);
+            columnsBox.heightProperty().addListener((obs, o, n) -> {
+                double h = n.doubleValue() - columnsBox.getPadding().getTop() - columnsBox.getPadding().getBottom();
+                if (h <= 0) return;
+                for (ColumnView c : columnViews) {
+                    c.setMinHeight(h);
+                    c.setPrefHeight(h);
+                }
+            });
+            columnsBox.widthProperty().addListener((obs, oldVal, newVal) -> updateColumnLayout(columnsBox));
+            javafx.application.Platform.runLater(() -> updateColumnLayout(columnsBox));
+            columns = columnViews;
+            board.setCenter(columnsBox);
+        }
 
         updateStatus(game);
         updateFoundations(game);
@@ -247,9 +278,11 @@ public class GameView extends StackPane {
     public void bindController(GameController controller) {
         newGameButton.setOnAction(e -> controller.onNewGame());
         undoButton.setOnAction(e -> controller.onUndo());
+        redoButton.setOnAction(e -> controller.onRedo());
         saveButton.setOnAction(e -> controller.onSaveGame());
         loadButton.setOnAction(e -> controller.onLoadGame());
         achievementButton.setOnAction(e -> controller.onShowAchievements());
+        replayButton.setOnAction(e -> controller.onReplay());
         customizeButton.setOnAction(e -> controller.onCustomizeBackground());
         dealButton.setOnAction(e -> controller.onDeal());
         hintButton.setOnAction(e -> controller.onHint());
@@ -276,7 +309,7 @@ public class GameView extends StackPane {
         }
     }
 
-    public ColumnView[] getColumns() {
+    public TableauColumn[] getColumns() {
         return columns;
     }
 
@@ -333,6 +366,10 @@ public class GameView extends StackPane {
         if (stockCountLabel == null) return;
         int remaining = game.getStock().size() / SpiderGame.COLUMN_COUNT;
         stockCountLabel.setText(String.valueOf(remaining));
+        if (canvasTableau != null) {
+            canvasTableau.setStockRounds(remaining);
+            return;
+        }
         
         // 更新可视化牌堆的厚度
         stockPileView.getChildren().removeIf(node -> node.getStyleClass().contains("card-back-visual"));
@@ -348,6 +385,10 @@ public class GameView extends StackPane {
     }
 
     public void updateFoundations(SpiderGame game) {
+        if (canvasTableau != null) {
+            canvasTableau.setFoundationTops(game);
+            return;
+        }
         for (int i = 0; i < foundations.length; i++) {
             Card top = null;
             if (i < game.getFoundations().size()) {
@@ -361,7 +402,7 @@ public class GameView extends StackPane {
     }
 
     public void playFoundationAnimation(int index) {
-        if (index < 0 || index >= foundations.length) {
+        if (index < 0 || index >= foundations.length || canvasTableau != null) {
             return;
         }
         FoundationView view = foundations[index];
@@ -377,10 +418,14 @@ public class GameView extends StackPane {
     }
 
     public void playDealAnimation() {
+        if (canvasTableau != null) {
+            javafx.application.Platform.runLater(canvasTableau::revealAll); // 画布模式不做飞牌动画
+            return;
+        }
         // 流行的发牌动画：从 stockView 匀速飞入每个 column 尾部
         javafx.application.Platform.runLater(() -> {
-            for (int i = 0; i < columns.length; i++) {
-                ColumnView column = columns[i];
+            for (int i = 0; i < columnViews.length; i++) {
+                ColumnView column = columnViews[i];
                 if (column.getChildren().isEmpty()) continue;
                 Node targetCard = column.getChildren().get(column.getChildren().size() - 1);
                 // 创建临时飞行动画卡片
@@ -420,14 +465,18 @@ public class GameView extends StackPane {
     }
 
     public void playNewGameAnimation() {
+        if (canvasTableau != null) {
+            javafx.application.Platform.runLater(canvasTableau::revealAll);
+            return;
+        }
         javafx.application.Platform.runLater(() -> {
             int rounds = 0;
-            for (ColumnView column : columns) {
+            for (ColumnView column : columnViews) {
                 rounds = Math.max(rounds, column.getChildren().size());
             }
             for (int r = 0; r < rounds; r++) {
-                for (int i = 0; i < columns.length; i++) {
-                    ColumnView column = columns[i];
+                for (int i = 0; i < columnViews.length; i++) {
+                    ColumnView column = columnViews[i];
                     if (r >= column.getChildren().size()) {
                         continue;
                     }
@@ -483,8 +532,12 @@ public class GameView extends StackPane {
     }
 
     public void showHintMove(int fromColumn, int startIndex, int toColumn) {
-        ColumnView src = columns[fromColumn];
-        ColumnView dst = columns[toColumn];
+        if (canvasTableau != null) {
+            canvasTableau.flashHint(fromColumn, startIndex, toColumn);
+            return;
+        }
+        ColumnView src = columnViews[fromColumn];
+        ColumnView dst = columnViews[toColumn];
         if (startIndex < 0 || startIndex >= src.getChildren().size()) return;
         Group ghost = new Group();
         double gap = src.getCurrentGap();
@@ -540,7 +593,7 @@ public class GameView extends StackPane {
     }
 
     private void updateColumnLayout(HBox columnsBox) {
-        if (columns == null || columns.length == 0) {
+        if (columnViews == null || columnViews.length == 0) {
             return;
         }
         double paddingLeft = columnsBox.getPadding().getLeft();
@@ -549,7 +602,7 @@ public class GameView extends StackPane {
         if (available <= 0) {
             return;
         }
-        int count = columns.length;
+        int count = columnViews.length;
         double desiredWidth = ColumnView.CARD_WIDTH + 20;
         double minWidth = ColumnView.CARD_WIDTH + 6;
         double minSpacing = 4.0;
@@ -568,7 +621,7 @@ public class GameView extends StackPane {
             spacing = Math.max(minSpacing, (available - columnWidth * count) / (count - 1));
         }
         columnsBox.setSpacing(spacing);
-        for (ColumnView column : columns) {
+        for (ColumnView column : columnViews) {
             column.setMinWidth(columnWidth);
             column.setPrefWidth(columnWidth);
         }
@@ -0,0 +1,24 @@
+package spiderfx.view;
+
+import spiderfx.controller.GameController;
+import spiderfx.model.Card;
+
+import java.util.List;
+
+/**
+ * 控制器眼中的一列牌：可以是节点式的 {@link ColumnView}，也可以是 {@link CanvasTableau} 中的一列
+ */
+public interface TableauColumn {
+    int getColumnIndex();
+
+    /**
+     * 从该下标起的牌暂不显示（拖动中或发牌动画前）
+     */
+    void setHiddenFromIndex(int hiddenFromIndex);
+
+    void render(List<Card> cards, GameController controller);
+
+    boolean containsScenePoint(double sceneX, double sceneY);
+
+    double getCurrentGap();
+}